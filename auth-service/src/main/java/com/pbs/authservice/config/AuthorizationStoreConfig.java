@@ -0,0 +1,151 @@
+package com.pbs.authservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.security.oauth2.server.authorization.autoconfigure.servlet.OAuth2AuthorizationServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationConsentService;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.client.JdbcRegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
+import org.springframework.security.oauth2.server.authorization.settings.OAuth2TokenFormat;
+import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Keeps registered clients, authorizations and consents in Postgres instead of Spring Boot's
+ * in-memory defaults, so tokens survive restarts and any instance can serve any token request.
+ */
+@Configuration
+@EnableScheduling
+public class AuthorizationStoreConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorizationStoreConfig.class);
+
+    @Bean
+    public RegisteredClientRepository registeredClientRepository(
+            JdbcOperations jdbcOperations,
+            @Value("${auth.client-cache.maximum-size:1000}") long maximumSize,
+            @Value("${auth.client-cache.ttl:PT5M}") Duration ttl) {
+        return new CachingRegisteredClientRepository(new JdbcRegisteredClientRepository(jdbcOperations), maximumSize, ttl);
+    }
+
+    @Bean
+    public OAuth2AuthorizationService authorizationService(JdbcOperations jdbcOperations,
+                                                           RegisteredClientRepository registeredClientRepository) {
+        return new JdbcOAuth2AuthorizationService(jdbcOperations, registeredClientRepository);
+    }
+
+    @Bean
+    public OAuth2AuthorizationConsentService authorizationConsentService(JdbcOperations jdbcOperations,
+                                                                         RegisteredClientRepository registeredClientRepository) {
+        return new JdbcOAuth2AuthorizationConsentService(jdbcOperations, registeredClientRepository);
+    }
+
+    /**
+     * Writes the clients under {@code spring.security.oauth2.authorizationserver.client} to the
+     * database, so the yml stays the place to configure them. Existing rows are updated in place;
+     * clients registered any other way are left alone.
+     */
+    @Bean
+    public ApplicationRunner registeredClientSeeder(OAuth2AuthorizationServerProperties properties,
+                                                    RegisteredClientRepository registeredClientRepository) {
+        return args -> {
+            for (Map.Entry<String, OAuth2AuthorizationServerProperties.Client> entry : properties.getClient().entrySet()) {
+                RegisteredClient client = toRegisteredClient(entry.getKey(), entry.getValue(),
+                        registeredClientRepository.findByClientId(entry.getValue().getRegistration().getClientId()));
+                try {
+                    registeredClientRepository.save(client);
+                    log.info("Registered client {} saved", client.getClientId());
+                } catch (DuplicateKeyException ex) {
+                    // another instance starting at the same time saved it first
+                    log.info("Registered client {} already saved by another instance", client.getClientId());
+                }
+            }
+        };
+    }
+
+    private static RegisteredClient toRegisteredClient(String registrationId, OAuth2AuthorizationServerProperties.Client properties,
+                                                       RegisteredClient existing) {
+        OAuth2AuthorizationServerProperties.Registration registration = properties.getRegistration();
+        RegisteredClient.Builder builder = RegisteredClient.withId(existing != null ? existing.getId() : registrationId)
+                .clientId(registration.getClientId())
+                .clientSecret(registration.getClientSecret())
+                .clientName(registration.getClientName() != null ? registration.getClientName() : registrationId)
+                .clientAuthenticationMethods(methods -> registration.getClientAuthenticationMethods()
+                        .forEach(method -> methods.add(new ClientAuthenticationMethod(method))))
+                .authorizationGrantTypes(grantTypes -> registration.getAuthorizationGrantTypes()
+                        .forEach(grantType -> grantTypes.add(new AuthorizationGrantType(grantType))))
+                .redirectUris(uris -> uris.addAll(registration.getRedirectUris()))
+                .postLogoutRedirectUris(uris -> uris.addAll(registration.getPostLogoutRedirectUris()))
+                .scopes(scopes -> scopes.addAll(registration.getScopes()))
+                .clientSettings(toClientSettings(properties))
+                .tokenSettings(toTokenSettings(properties.getToken()));
+        if (existing != null) {
+            builder.clientIdIssuedAt(existing.getClientIdIssuedAt());
+        }
+        return builder.build();
+    }
+
+    // the mapping Spring Boot applies to the in-memory clients it registers itself
+    private static ClientSettings toClientSettings(OAuth2AuthorizationServerProperties.Client properties) {
+        ClientSettings.Builder builder = ClientSettings.builder()
+                .requireProofKey(properties.isRequireProofKey())
+                .requireAuthorizationConsent(properties.isRequireAuthorizationConsent());
+        if (properties.getJwkSetUri() != null) {
+            builder.jwkSetUrl(properties.getJwkSetUri());
+        }
+        if (properties.getTokenEndpointAuthenticationSigningAlgorithm() != null) {
+            builder.tokenEndpointAuthenticationSigningAlgorithm(
+                    jwsAlgorithm(properties.getTokenEndpointAuthenticationSigningAlgorithm()));
+        }
+        return builder.build();
+    }
+
+    private static TokenSettings toTokenSettings(OAuth2AuthorizationServerProperties.Token token) {
+        TokenSettings.Builder builder = TokenSettings.builder()
+                .reuseRefreshTokens(token.isReuseRefreshTokens());
+        if (token.getAuthorizationCodeTimeToLive() != null) {
+            builder.authorizationCodeTimeToLive(token.getAuthorizationCodeTimeToLive());
+        }
+        if (token.getAccessTokenTimeToLive() != null) {
+            builder.accessTokenTimeToLive(token.getAccessTokenTimeToLive());
+        }
+        if (token.getAccessTokenFormat() != null) {
+            builder.accessTokenFormat(new OAuth2TokenFormat(token.getAccessTokenFormat()));
+        }
+        if (token.getDeviceCodeTimeToLive() != null) {
+            builder.deviceCodeTimeToLive(token.getDeviceCodeTimeToLive());
+        }
+        if (token.getRefreshTokenTimeToLive() != null) {
+            builder.refreshTokenTimeToLive(token.getRefreshTokenTimeToLive());
+        }
+        if (token.getIdTokenSignatureAlgorithm() != null) {
+            builder.idTokenSignatureAlgorithm(SignatureAlgorithm.from(token.getIdTokenSignatureAlgorithm().toUpperCase()));
+        }
+        return builder.build();
+    }
+
+    private static JwsAlgorithm jwsAlgorithm(String name) {
+        String upperCaseName = name.toUpperCase();
+        JwsAlgorithm algorithm = SignatureAlgorithm.from(upperCaseName);
+        return algorithm != null ? algorithm : MacAlgorithm.from(upperCaseName);
+    }
+}
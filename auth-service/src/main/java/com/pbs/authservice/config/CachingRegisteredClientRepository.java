@@ -0,0 +1,45 @@
+package com.pbs.authservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Near-cache in front of the JDBC client repository. Every token request authenticates its client
+ * and loads the authorization's client again, so without it each grant costs several extra client
+ * queries. Unknown ids are cached too, so a flood of bad client ids does not reach the database.
+ * A save evicts the entry on this node only; other nodes see the change after {@code ttl}.
+ */
+public class CachingRegisteredClientRepository implements RegisteredClientRepository {
+
+    private final RegisteredClientRepository delegate;
+    private final Cache<String, Optional<RegisteredClient>> byId;
+    private final Cache<String, Optional<RegisteredClient>> byClientId;
+
+    public CachingRegisteredClientRepository(RegisteredClientRepository delegate, long maximumSize, Duration ttl) {
+        this.delegate = delegate;
+        this.byId = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+        this.byClientId = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+    }
+
+    @Override
+    public void save(RegisteredClient registeredClient) {
+        delegate.save(registeredClient);
+        byId.invalidate(registeredClient.getId());
+        byClientId.invalidate(registeredClient.getClientId());
+    }
+
+    @Override
+    public RegisteredClient findById(String id) {
+        return byId.get(id, key -> Optional.ofNullable(delegate.findById(key))).orElse(null);
+    }
+
+    @Override
+    public RegisteredClient findByClientId(String clientId) {
+        return byClientId.get(clientId, key -> Optional.ofNullable(delegate.findByClientId(key))).orElse(null);
+    }
+}
@@ -0,0 +1,48 @@
+package com.pbs.authservice.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.server.authorization.token.JwtEncodingContext;
+import org.springframework.security.oauth2.server.authorization.token.OAuth2TokenCustomizer;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Replaces the key pair Spring Boot generates on every start with {@link SigningKeyStore}, which
+ * also serves the JWKS endpoint.
+ */
+@Configuration
+public class SigningKeyConfig {
+
+    @Bean
+    public SigningKeyStore signingKeyStore(
+            @Value("${auth.signing-keys.directory:./keys}") Path directory,
+            @Value("${auth.signing-keys.algorithm:RS256}") String algorithm,
+            @Value("${auth.signing-keys.rotation-period:P30D}") Duration rotationPeriod,
+            @Value("${auth.signing-keys.pre-publish:PT1H}") Duration prePublish,
+            @Value("${auth.signing-keys.retention:P2D}") Duration retention,
+            @Value("${auth.signing-keys.check-interval:PT1M}") Duration checkInterval) {
+        return new SigningKeyStore(directory, JWSAlgorithm.parse(algorithm), rotationPeriod, prePublish, retention,
+                checkInterval, Clock.systemUTC());
+    }
+
+    /**
+     * Signs access and ID tokens with the current key, naming it by {@code kid} so the encoder and
+     * resource servers can tell it apart from the other published keys.
+     */
+    @Bean
+    public OAuth2TokenCustomizer<JwtEncodingContext> signingKeyCustomizer(SigningKeyStore signingKeyStore) {
+        return context -> {
+            JWK signingKey = signingKeyStore.signingKey();
+            context.getJwsHeader()
+                    .algorithm(SignatureAlgorithm.from(signingKey.getAlgorithm().getName()))
+                    .keyId(signingKey.getKeyID());
+        };
+    }
+}
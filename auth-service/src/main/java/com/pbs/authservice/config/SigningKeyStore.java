@@ -0,0 +1,236 @@
+package com.pbs.authservice.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.JWKGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token signing keys kept as JWK files in a directory, so issued tokens stay valid across restarts
+ * and every instance sharing the directory signs with the same key.
+ * <p>
+ * A key is written {@code pre-publish} before it starts signing ({@code nbf}), so resource servers
+ * holding a cached JWKS pick it up before the first token signed with it arrives. It signs for
+ * {@code rotation-period}, and stays published for {@code retention} after its successor takes
+ * over, so tokens it signed can still be verified until they expire. The key set is re-read and
+ * rotated at most once per {@code check-interval}, on the next lookup.
+ */
+public class SigningKeyStore implements JWKSource<SecurityContext> {
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeyStore.class);
+
+    private static final String KEY_FILE_SUFFIX = ".json";
+    private static final Set<JWSAlgorithm> SUPPORTED_ALGORITHMS = Set.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256);
+    private static final Comparator<JWK> BY_ACTIVATION = Comparator
+            .comparing((JWK key) -> key.getNotBeforeTime())
+            .thenComparing(JWK::getKeyID);
+
+    private final Path directory;
+    private final JWSAlgorithm algorithm;
+    private final Duration rotationPeriod;
+    private final Duration prePublish;
+    private final Duration retention;
+    private final Duration checkInterval;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Keys keys;
+
+    public SigningKeyStore(Path directory, JWSAlgorithm algorithm, Duration rotationPeriod, Duration prePublish,
+                           Duration retention, Duration checkInterval, Clock clock) {
+        if (!SUPPORTED_ALGORITHMS.contains(algorithm)) {
+            throw new IllegalArgumentException("Unsupported signing algorithm " + algorithm + ", use RS256 or ES256");
+        }
+        if (prePublish.compareTo(rotationPeriod) >= 0) {
+            throw new IllegalArgumentException("pre-publish must be shorter than rotation-period");
+        }
+        this.directory = directory;
+        this.algorithm = algorithm;
+        this.rotationPeriod = rotationPeriod;
+        this.prePublish = prePublish;
+        this.retention = retention;
+        this.checkInterval = checkInterval;
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can not create signing key directory " + directory, ex);
+        }
+        this.keys = refresh(clock.instant());
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        return jwkSelector.select(current().jwkSet());
+    }
+
+    /**
+     * The key new tokens are signed with; the token customizer names it in the JWS header, since
+     * during an overlap several keys of the same type are published.
+     */
+    public JWK signingKey() {
+        return current().signingKey();
+    }
+
+    private Keys current() {
+        Keys current = keys;
+        Instant now = clock.instant();
+        // one caller re-reads the directory, the others carry on with the key set they have
+        if (now.isBefore(current.nextCheck()) || !lock.tryLock()) {
+            return current;
+        }
+        try {
+            current = keys;
+            if (!now.isBefore(current.nextCheck())) {
+                current = refresh(now);
+                keys = current;
+            }
+            return current;
+        } catch (RuntimeException ex) {
+            log.error("Failed to refresh signing keys from {}, keeping the current set", directory, ex);
+            return current;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Keys refresh(Instant now) {
+        List<JWK> stored = load();
+        if (stored.isEmpty()) {
+            // nothing can have cached an older key set yet, so the first key signs straight away
+            stored.add(create(now, now));
+        }
+        JWK newest = stored.getLast();
+        Instant newestActivation = newest.getNotBeforeTime().toInstant();
+        boolean newestActive = !newestActivation.isAfter(now);
+        boolean due = !now.isBefore(newestActivation.plus(rotationPeriod).minus(prePublish))
+                || !algorithm.equals(newest.getAlgorithm());
+        if (newestActive && due) {
+            stored.add(create(now, now.plus(prePublish)));
+        }
+
+        List<JWK> published = new ArrayList<>(stored.size());
+        JWK signingKey = null;
+        for (int i = 0; i < stored.size(); i++) {
+            JWK key = stored.get(i);
+            if (key.getNotBeforeTime().toInstant().isAfter(now)) {
+                published.add(key);
+                continue;
+            }
+            Instant supersededAt = i + 1 < stored.size() ? stored.get(i + 1).getNotBeforeTime().toInstant() : null;
+            if (supersededAt == null || supersededAt.isAfter(now)) {
+                signingKey = key;
+                published.add(key);
+            } else if (supersededAt.plus(retention).isAfter(now)) {
+                published.add(key);
+            } else {
+                delete(key);
+            }
+        }
+        if (signingKey == null) {
+            // no key is active yet, e.g. another instance whose clock runs ahead just created the
+            // first one; its earliest key is already published, so tokens signed with it verify
+            signingKey = stored.getFirst();
+            log.warn("No signing key active yet at {}, signing with {} active from {}",
+                    now, signingKey.getKeyID(), signingKey.getNotBeforeTime().toInstant());
+        }
+        log.debug("Signing keys refreshed - signing: {}, published: {}", signingKey.getKeyID(), published.size());
+        return new Keys(new JWKSet(published), signingKey, now.plus(checkInterval));
+    }
+
+    private List<JWK> load() {
+        List<JWK> stored = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + KEY_FILE_SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    JWK key = JWK.parse(Files.readString(file, StandardCharsets.UTF_8));
+                    if (key.isPrivate() && key.getNotBeforeTime() != null && key.getKeyID() != null) {
+                        stored.add(key);
+                    } else {
+                        log.warn("Ignoring signing key file {} without a private key, kid or nbf", file);
+                    }
+                } catch (IOException | ParseException ex) {
+                    log.warn("Ignoring unreadable signing key file {}. Error: {}", file, ex.getMessage());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Can not list signing keys in " + directory, ex);
+        }
+        stored.sort(BY_ACTIVATION);
+        return stored;
+    }
+
+    private JWK create(Instant now, Instant activation) {
+        JWKGenerator<? extends JWK> generator = JWSAlgorithm.ES256.equals(algorithm)
+                ? new ECKeyGenerator(Curve.P_256)
+                : new RSAKeyGenerator(RSAKeyGenerator.MIN_KEY_SIZE_BITS);
+        JWK key;
+        try {
+            key = generator
+                    .keyID(UUID.randomUUID().toString())
+                    .keyUse(KeyUse.SIGNATURE)
+                    .algorithm(algorithm)
+                    .issueTime(Date.from(now))
+                    .notBeforeTime(Date.from(activation))
+                    .generate();
+        } catch (JOSEException ex) {
+            throw new IllegalStateException("Failed to generate a " + algorithm + " signing key", ex);
+        }
+        Path file = directory.resolve(key.getKeyID() + KEY_FILE_SUFFIX);
+        Path temp = directory.resolve(key.getKeyID() + KEY_FILE_SUFFIX + ".tmp");
+        try {
+            Files.writeString(temp, key.toJSONString(), StandardCharsets.UTF_8);
+            if (Files.getFileAttributeView(temp, PosixFileAttributeView.class) != null) {
+                Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to store signing key " + file, ex);
+        }
+        log.info("Created {} signing key {}, signing from {}", algorithm, key.getKeyID(), activation);
+        return key;
+    }
+
+    private void delete(JWK key) {
+        try {
+            Files.deleteIfExists(directory.resolve(key.getKeyID() + KEY_FILE_SUFFIX));
+            log.info("Removed retired signing key {}", key.getKeyID());
+        } catch (IOException ex) {
+            log.warn("Failed to remove retired signing key {}. Error: {}", key.getKeyID(), ex.getMessage());
+        }
+    }
+
+    private record Keys(JWKSet jwkSet, JWK signingKey, Instant nextCheck) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.pbs.authservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes authorizations nobody can use any more: those whose last token (refresh token included)
+ * has expired, and those that never got a token, such as an abandoned login or consent screen,
+ * once they are {@code pending-ttl} old. Rows go in batches, each its own short statement, and
+ * {@code SKIP LOCKED} lets every instance run the job without waiting on the others.
+ */
+@Service
+public class AuthorizationCleanupService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorizationCleanupService.class);
+
+    private static final String DELETE_EXPIRED_SQL = """
+            DELETE FROM oauth2_authorization
+            WHERE id IN (SELECT id FROM oauth2_authorization
+                         WHERE expires_at < ?
+                         ORDER BY expires_at
+                         LIMIT ?
+                         FOR UPDATE SKIP LOCKED)""";
+
+    private static final String DELETE_PENDING_SQL = """
+            DELETE FROM oauth2_authorization
+            WHERE id IN (SELECT id FROM oauth2_authorization
+                         WHERE expires_at IS NULL AND created_at < ?
+                         ORDER BY created_at
+                         LIMIT ?
+                         FOR UPDATE SKIP LOCKED)""";
+
+    private final JdbcOperations jdbcOperations;
+    private final Duration pendingTtl;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public AuthorizationCleanupService(JdbcOperations jdbcOperations,
+                                       @Value("${auth.authorization-cleanup.pending-ttl:PT1H}") Duration pendingTtl,
+                                       @Value("${auth.authorization-cleanup.batch-size:1000}") int batchSize,
+                                       @Value("${auth.authorization-cleanup.max-batches:50}") int maxBatches) {
+        this.jdbcOperations = jdbcOperations;
+        this.pendingTtl = pendingTtl;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.authorization-cleanup.interval:PT5M}",
+            initialDelayString = "${auth.authorization-cleanup.interval:PT5M}")
+    public void removeExpiredAuthorizations() {
+        Instant now = Instant.now();
+        int expired = deleteInBatches(DELETE_EXPIRED_SQL, now);
+        int pending = deleteInBatches(DELETE_PENDING_SQL, now.minus(pendingTtl));
+        if (expired + pending > 0) {
+            log.info("Removed {} expired and {} abandoned authorizations", expired, pending);
+        }
+    }
+
+    private int deleteInBatches(String sql, Instant cutoff) {
+        Timestamp before = Timestamp.from(cutoff);
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = jdbcOperations.update(sql, before, batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
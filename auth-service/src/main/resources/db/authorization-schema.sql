@@ -0,0 +1,95 @@
+-- Spring Authorization Server tables for PostgreSQL: blob -> text, timestamp -> timestamptz.
+-- Run on every start (spring.sql.init), so every statement must be idempotent.
+
+CREATE TABLE IF NOT EXISTS oauth2_registered_client
+(
+    id                            varchar(100)                            NOT NULL PRIMARY KEY,
+    client_id                     varchar(100)                            NOT NULL UNIQUE,
+    client_id_issued_at           timestamptz   DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    client_secret                 varchar(200)  DEFAULT NULL,
+    client_secret_expires_at      timestamptz   DEFAULT NULL,
+    client_name                   varchar(200)                            NOT NULL,
+    client_authentication_methods varchar(1000)                           NOT NULL,
+    authorization_grant_types     varchar(1000)                           NOT NULL,
+    redirect_uris                 varchar(1000) DEFAULT NULL,
+    post_logout_redirect_uris     varchar(1000) DEFAULT NULL,
+    scopes                        varchar(1000)                           NOT NULL,
+    client_settings               varchar(2000)                           NOT NULL,
+    token_settings                varchar(2000)                           NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS oauth2_authorization
+(
+    id                            varchar(100) NOT NULL PRIMARY KEY,
+    registered_client_id          varchar(100) NOT NULL,
+    principal_name                varchar(200) NOT NULL,
+    authorization_grant_type      varchar(100) NOT NULL,
+    authorized_scopes             varchar(1000) DEFAULT NULL,
+    attributes                    text          DEFAULT NULL,
+    state                         varchar(500)  DEFAULT NULL,
+    authorization_code_value      text          DEFAULT NULL,
+    authorization_code_issued_at  timestamptz   DEFAULT NULL,
+    authorization_code_expires_at timestamptz   DEFAULT NULL,
+    authorization_code_metadata   text          DEFAULT NULL,
+    access_token_value            text          DEFAULT NULL,
+    access_token_issued_at        timestamptz   DEFAULT NULL,
+    access_token_expires_at       timestamptz   DEFAULT NULL,
+    access_token_metadata         text          DEFAULT NULL,
+    access_token_type             varchar(100)  DEFAULT NULL,
+    access_token_scopes           varchar(1000) DEFAULT NULL,
+    oidc_id_token_value           text          DEFAULT NULL,
+    oidc_id_token_issued_at       timestamptz   DEFAULT NULL,
+    oidc_id_token_expires_at      timestamptz   DEFAULT NULL,
+    oidc_id_token_metadata        text          DEFAULT NULL,
+    refresh_token_value           text          DEFAULT NULL,
+    refresh_token_issued_at       timestamptz   DEFAULT NULL,
+    refresh_token_expires_at      timestamptz   DEFAULT NULL,
+    refresh_token_metadata        text          DEFAULT NULL,
+    user_code_value               text          DEFAULT NULL,
+    user_code_issued_at           timestamptz   DEFAULT NULL,
+    user_code_expires_at          timestamptz   DEFAULT NULL,
+    user_code_metadata            text          DEFAULT NULL,
+    device_code_value             text          DEFAULT NULL,
+    device_code_issued_at         timestamptz   DEFAULT NULL,
+    device_code_expires_at        timestamptz   DEFAULT NULL,
+    device_code_metadata          text          DEFAULT NULL,
+    -- not written by JdbcOAuth2AuthorizationService; used by AuthorizationCleanupService
+    created_at                    timestamptz   DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    expires_at                    timestamptz GENERATED ALWAYS AS (GREATEST(authorization_code_expires_at,
+                                                                            access_token_expires_at,
+                                                                            refresh_token_expires_at,
+                                                                            oidc_id_token_expires_at,
+                                                                            user_code_expires_at,
+                                                                            device_code_expires_at)) STORED
+);
+
+CREATE TABLE IF NOT EXISTS oauth2_authorization_consent
+(
+    registered_client_id varchar(100)  NOT NULL,
+    principal_name       varchar(200)  NOT NULL,
+    authorities          varchar(1000) NOT NULL,
+    PRIMARY KEY (registered_client_id, principal_name)
+);
+
+-- token lookups are equality matches on long values; hash indexes keep them small, and every
+-- column needs one or an unknown token type lookup (which ORs them all) scans the table
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_state
+    ON oauth2_authorization USING hash (state) WHERE state IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_code
+    ON oauth2_authorization USING hash (authorization_code_value) WHERE authorization_code_value IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_access_token
+    ON oauth2_authorization USING hash (access_token_value) WHERE access_token_value IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_refresh_token
+    ON oauth2_authorization USING hash (refresh_token_value) WHERE refresh_token_value IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_id_token
+    ON oauth2_authorization USING hash (oidc_id_token_value) WHERE oidc_id_token_value IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_user_code
+    ON oauth2_authorization USING hash (user_code_value) WHERE user_code_value IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_device_code
+    ON oauth2_authorization USING hash (device_code_value) WHERE device_code_value IS NOT NULL;
+
+-- cleanup: authorizations past their last token expiry, and ones that never got a token
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_expires_at
+    ON oauth2_authorization (expires_at) WHERE expires_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_oauth2_authorization_pending
+    ON oauth2_authorization (created_at) WHERE expires_at IS NULL;
@@ -0,0 +1,43 @@
+package com.pbs.bookingbenchmarks;
+
+import java.util.List;
+
+/**
+ * What the on-sale load test needs from the booking-service: the show's seat layout, starting a
+ * booking and confirming it.
+ */
+interface BookingClient extends AutoCloseable {
+
+    /**
+     * @return the show's seat numbers grouped by row, front row first
+     */
+    List<List<String>> seatRows(long showId);
+
+    Result initiate(long userId, long showId, List<String> seatNumbers);
+
+    Result confirm(long bookingId);
+
+    @Override
+    default void close() {
+    }
+
+    enum Outcome {
+        OK,
+        // another user holds one of the seats
+        LOCK_CONFLICT,
+        // one of the seats is already sold
+        UNAVAILABLE,
+        FAILED
+    }
+
+    record Result(Outcome outcome, Long bookingId, String detail) {
+
+        static Result ok(Long bookingId) {
+            return new Result(Outcome.OK, bookingId, null);
+        }
+
+        static Result of(Outcome outcome, String detail) {
+            return new Result(outcome, null, detail);
+        }
+    }
+}
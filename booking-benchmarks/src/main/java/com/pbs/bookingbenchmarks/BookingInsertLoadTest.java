@@ -0,0 +1,350 @@
+package com.pbs.bookingbenchmarks;
+
+import com.pbs.bookingservice.common.event.SeatStatusChangedEvent;
+import com.pbs.bookingservice.common.req.BookingRequest;
+import com.pbs.bookingservice.common.req.OfferDiscountCode;
+import com.pbs.bookingservice.config.AppConfig;
+import com.pbs.bookingservice.entity.SeatInventory;
+import com.pbs.bookingservice.entity.Show;
+import com.pbs.bookingservice.repository.BookingRepository;
+import com.pbs.bookingservice.repository.BookingSeatRepository;
+import com.pbs.bookingservice.repository.SeatInventoryRepository;
+import com.pbs.bookingservice.repository.ShowRepository;
+import com.pbs.bookingservice.saga.OutboxNotifier;
+import com.pbs.bookingservice.saga.OutboxRepository;
+import com.pbs.bookingservice.saga.OutboxService;
+import com.pbs.bookingservice.service.*;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statements per booking and latency of the booking write path against a real Postgres. Each
+ * booking runs the real {@link BookingService#initiateBooking(BookingRequest)} on Spring Data JPA
+ * repositories over Hibernate, configured as in {@code application.yml} (pooled-lo, batch size 50,
+ * ordered inserts, {@code reWriteBatchedInserts}); Redis is {@link InMemoryRedisTemplate}. As in
+ * the service, the booking with its seats and the outbox event are two transactions. Every thread
+ * books its own seats and releases them again, so bookings never conflict.
+ * <ul>
+ *     <li>{@code identity} - the old mapping, applied with {@code booking-insert-load/identity-ids.orm.xml}:
+ *     every booking, booking seat and outbox row is its own {@code INSERT}, since Hibernate needs
+ *     the generated id before it can go on;</li>
+ *     <li>{@code pooled} - the entities as mapped: ids come from sequences {@code allocationSize}
+ *     at a time, so the booking's seats go in one JDBC batch.</li>
+ * </ul>
+ * Statements are Hibernate's prepared statement count, so a JDBC batch counts once; commits are
+ * not included. The persist and outbox columns are the means of the service's own stage timers.
+ * The tables live in their own schema ({@code --schema}, recreated for every mode).
+ * <pre>
+ * java -cp benchmarks.jar com.pbs.bookingbenchmarks.BookingInsertLoadTest --jdbc-url=jdbc:postgresql://localhost:5432/mtb
+ *      --user=kaizen --password=admin --threads=8 --bookings=20000 --warmup=2000 --seats=10 --mode=both
+ * </pre>
+ */
+public class BookingInsertLoadTest {
+
+    private static final String IDENTITY_IDS_MAPPING = "booking-insert-load/identity-ids.orm.xml";
+
+    private final Map<String, String> options;
+
+    BookingInsertLoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator < 0) {
+                options.put(option, "true");
+            } else {
+                options.put(option.substring(0, separator), option.substring(separator + 1));
+            }
+        }
+        new BookingInsertLoadTest(options).run();
+    }
+
+    void run() throws Exception {
+        String mode = options.getOrDefault("mode", "both");
+        System.out.printf("Booking insert load test: %d bookings (%d warm-up) of %d seats on %d threads%n",
+                intOption("bookings", 20000), intOption("warmup", 2000), intOption("seats", 10),
+                intOption("threads", 8));
+        if (!"pooled".equals(mode)) {
+            runMode(false);
+        }
+        if (!"identity".equals(mode)) {
+            runMode(true);
+        }
+    }
+
+    private void runMode(boolean pooled) throws Exception {
+        int threads = intOption("threads", 8);
+        int seats = intOption("seats", 10);
+        recreateSchema();
+        try (HikariDataSource dataSource = dataSource(threads);
+             AnnotationConfigApplicationContext context = jpaContext(dataSource, pooled)) {
+            Show show = createShow(context, threads * seats);
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            Bookings bookings = new Bookings(context, new BookingMetrics(meterRegistry), show.getId());
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+
+            book(bookings, threads, seats, intOption("warmup", 2000), new Recorder(3));
+            statistics.clear();
+            StageTimes stageTimes = new StageTimes(meterRegistry);
+
+            int count = intOption("bookings", 20000);
+            Recorder latency = new Recorder(3);
+            long start = System.nanoTime();
+            int failed = book(bookings, threads, seats, count, latency);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            report(pooled ? "pooled-lo sequences, batched" : "identity, one insert per row", count, failed,
+                    seconds, statistics, latency.getIntervalHistogram(), stageTimes);
+        }
+    }
+
+    private static int book(Bookings bookings, int threads, int seats, int count, Recorder latency)
+            throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(count);
+        LongAdder failed = new LongAdder();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            long userId = i + 1L;
+            List<SeatInventory> owned = bookings.layout.subList(i * seats, (i + 1) * seats);
+            Thread.ofPlatform().name("booker-", i).start(() -> {
+                try {
+                    BookingRequest request = BookingRequest.builder()
+                            .userId(userId)
+                            .showId(bookings.showId)
+                            .seatCount(seats)
+                            .seatNumbers(owned.stream().map(SeatInventory::getSeatNumber).toList())
+                            .offerCode(OfferDiscountCode.THIRD_TICKET_50_DISCOUNT)
+                            .build();
+                    List<Long> seatIds = owned.stream().map(SeatInventory::getId).toList();
+                    while (remaining.getAndDecrement() > 0) {
+                        long begin = System.nanoTime();
+                        try {
+                            bookings.bookingService.initiateBooking(request);
+                            latency.recordValue((System.nanoTime() - begin) / 1000);
+                        } catch (RuntimeException ex) {
+                            failed.increment();
+                        } finally {
+                            bookings.seatLockService.unlockSeats(bookings.showId, seatIds, userId);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return failed.intValue();
+    }
+
+    private static Show createShow(AnnotationConfigApplicationContext context, int totalSeats) {
+        Show show = Fixtures.show(0L, totalSeats);
+        show.setId(null);
+        show = context.getBean(ShowRepository.class).save(show);
+        List<SeatInventory> seats = Fixtures.seats(0L, totalSeats);
+        for (SeatInventory seat : seats) {
+            seat.setId(null);
+            seat.setShow(show);
+        }
+        context.getBean(SeatInventoryRepository.class).saveAll(seats);
+        return show;
+    }
+
+    private static void report(String label, int bookings, int failed, double seconds, Statistics statistics,
+                               Histogram latency, StageTimes stageTimes) {
+        System.out.println();
+        System.out.println("Ids: " + label);
+        System.out.printf("Duration            %.2f s (%d failed)%n", seconds, failed);
+        System.out.printf("Throughput          %.0f bookings/s%n", bookings / seconds);
+        System.out.printf("Statements/booking  %.2f (%.2f rows inserted, %.2f transactions)%n",
+                (double) statistics.getPrepareStatementCount() / bookings,
+                (double) statistics.getEntityInsertCount() / bookings,
+                (double) statistics.getTransactionCount() / bookings);
+        System.out.printf("Stage means         persist %.3f ms, outbox %.3f ms%n",
+                stageTimes.mean("persist"), stageTimes.mean("outbox"));
+        System.out.printf("Initiate latency    p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                latency.getValueAtPercentile(50) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0,
+                latency.getValueAtPercentile(99.9) / 1000.0,
+                latency.getMaxValue() / 1000.0);
+    }
+
+    private void recreateSchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl(), user(), password());
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + schema() + " CASCADE");
+            statement.execute("CREATE SCHEMA " + schema());
+        }
+    }
+
+    private HikariDataSource dataSource(int threads) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl());
+        config.setUsername(user());
+        config.setPassword(password());
+        config.setMaximumPoolSize(threads);
+        config.setConnectionInitSql("SET search_path TO " + schema());
+        config.addDataSourceProperty("reWriteBatchedInserts", options.getOrDefault("rewrite", "true"));
+        return new HikariDataSource(config);
+    }
+
+    private AnnotationConfigApplicationContext jpaContext(HikariDataSource dataSource, boolean pooled) {
+        LocalContainerEntityManagerFactoryBean entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setPackagesToScan("com.pbs.bookingservice.entity", "com.pbs.bookingservice.saga");
+        if (!pooled) {
+            entityManagerFactory.setMappingResources(IDENTITY_IDS_MAPPING);
+        }
+        // the settings of application.yml that shape the inserts
+        entityManagerFactory.setJpaPropertyMap(Map.of(
+                "hibernate.default_schema", schema(),
+                "hibernate.hbm2ddl.auto", "create",
+                "hibernate.physical_naming_strategy",
+                "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+                "hibernate.id.optimizer.pooled.preferred", "pooled-lo",
+                "hibernate.jdbc.batch_size", "50",
+                "hibernate.order_inserts", "true",
+                "hibernate.order_updates", "true",
+                "hibernate.generate_statistics", "true"));
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean("entityManagerFactory", LocalContainerEntityManagerFactoryBean.class,
+                () -> entityManagerFactory);
+        context.registerBean("transactionManager", JpaTransactionManager.class,
+                () -> new JpaTransactionManager(context.getBean(EntityManagerFactory.class)));
+        context.register(Repositories.class);
+        context.refresh();
+        return context;
+    }
+
+    private String jdbcUrl() {
+        return options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/mtb");
+    }
+
+    private String user() {
+        return options.getOrDefault("user", "kaizen");
+    }
+
+    private String password() {
+        return options.getOrDefault("password", "admin");
+    }
+
+    private String schema() {
+        return options.getOrDefault("schema", "booking_insert_load");
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = {BookingRepository.class, OutboxRepository.class})
+    static class Repositories {
+    }
+
+    /**
+     * The {@link BookingService} wiring of {@link InProcessBookingClient} on the JPA repositories.
+     */
+    private static final class Bookings {
+
+        private final Long showId;
+        private final List<SeatInventory> layout;
+        private final SeatLockService seatLockService;
+        private final BookingService bookingService;
+
+        Bookings(AnnotationConfigApplicationContext context, BookingMetrics bookingMetrics, Long showId) {
+            this.showId = showId;
+            InMemoryRedisTemplate redisTemplate = new InMemoryRedisTemplate(SimulatedIo.NONE);
+            ShowRepository showRepository = context.getBean(ShowRepository.class);
+            SeatInventoryRepository seatInventoryRepository = context.getBean(SeatInventoryRepository.class);
+            BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+            ShowCacheService showCacheService = Fixtures.showCache(showRepository, seatInventoryRepository,
+                    redisTemplate, event -> {
+                    });
+            SeatAvailabilityService seatAvailabilityService = new SeatAvailabilityService(
+                    seatInventoryRepository, redisTemplate, null, showCacheService);
+            ApplicationEventPublisher eventPublisher = event -> {
+                if (event instanceof SeatStatusChangedEvent seatStatusChanged) {
+                    seatAvailabilityService.onSeatStatusChanged(seatStatusChanged);
+                }
+            };
+            this.layout = seatInventoryRepository.findByShowId(showId);
+            this.seatLockService = new SeatLockService(redisTemplate, eventPublisher, bookingMetrics);
+            this.bookingService = new BookingService(
+                    null,
+                    new PricingService(new OfferService()),
+                    seatInventoryRepository,
+                    bookingRepository,
+                    context.getBean(BookingSeatRepository.class),
+                    seatLockService,
+                    new OutboxService(context.getBean(OutboxRepository.class), new AppConfig().objectMapper(),
+                            new OutboxNotifier(null, null)),
+                    showRepository,
+                    seatAvailabilityService,
+                    new BookingExpiryScheduler(bookingRepository, null),
+                    eventPublisher,
+                    bookingMetrics,
+                    Fixtures.bookingCache(bookingRepository, redisTemplate),
+                    new IdempotencyService(redisTemplate, new AppConfig().objectMapper()),
+                    null);
+        }
+    }
+
+    /**
+     * The service's stage timers from a starting point on, so the warm-up is left out.
+     */
+    private static final class StageTimes {
+
+        private final SimpleMeterRegistry meterRegistry;
+        private final Map<String, double[]> start = new HashMap<>();
+
+        StageTimes(SimpleMeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            for (String stage : List.of("persist", "outbox")) {
+                start.put(stage, totals(stage));
+            }
+        }
+
+        double mean(String stage) {
+            double[] now = totals(stage);
+            double[] then = start.get(stage);
+            return now[1] > then[1] ? (now[0] - then[0]) / (now[1] - then[1]) : 0.0;
+        }
+
+        private double[] totals(String stage) {
+            Timer timer = meterRegistry.get("booking.initiate.stage").tag("stage", stage).timer();
+            return new double[]{timer.totalTime(TimeUnit.MILLISECONDS), timer.count()};
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.pbs.bookingbenchmarks;
+
+import com.github.f4b6a3.ulid.UlidCreator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ULID booking reference generation as done in {@code BookingService.createBookingRecord},
+ * single-threaded and under contention on the shared generator.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingReferenceBenchmark {
+
+    @Benchmark
+    public String ulid() {
+        return UlidCreator.getUlid().toString();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String ulidContended() {
+        return UlidCreator.getUlid().toString();
+    }
+
+    @Benchmark
+    public String monotonicUlid() {
+        return UlidCreator.getMonotonicUlid().toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.pbs.bookingbenchmarks;
+
+import com.pbs.bookingservice.common.resp.BookingResponse;
+import com.pbs.bookingservice.entity.Booking;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building {@link BookingResponse}s the way {@code getAllBookingsByUserId} does and writing them
+ * with the Jackson mapper Spring MVC uses for the response body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingResponseBenchmark {
+
+    @Param({"1", "20"})
+    private int bookingCount;
+
+    @Param({"3"})
+    private int seatsPerBooking;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private List<Booking> bookings;
+    private BookingResponse response;
+
+    @Setup
+    public void setUp() {
+        bookings = new ArrayList<>(bookingCount);
+        for (int i = 0; i < bookingCount; i++) {
+            bookings.add(Fixtures.booking(i + 1L, 1L, Fixtures.seats(i * 10L + 1, seatsPerBooking)));
+        }
+        response = new BookingResponse(bookings.getFirst());
+    }
+
+    @Benchmark
+    public List<BookingResponse> construct() {
+        return bookings.stream()
+                .map(BookingResponse::new)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return jsonMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] constructAndSerializeAll() {
+        return jsonMapper.writeValueAsBytes(construct());
+    }
+}
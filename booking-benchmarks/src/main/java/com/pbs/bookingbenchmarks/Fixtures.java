@@ -0,0 +1,119 @@
+package com.pbs.bookingbenchmarks;
+
+import com.github.f4b6a3.ulid.UlidCreator;
+import com.pbs.bookingservice.entity.Booking;
+import com.pbs.bookingservice.entity.BookingSeat;
+import com.pbs.bookingservice.config.AppConfig;
+import com.pbs.bookingservice.entity.SeatInventory;
+import com.pbs.bookingservice.entity.Show;
+import com.pbs.bookingservice.entity.enums.BookingSeatStatus;
+import com.pbs.bookingservice.entity.enums.BookingStatus;
+import com.pbs.bookingservice.entity.enums.SeatStatus;
+import com.pbs.bookingservice.repository.BookingRepository;
+import com.pbs.bookingservice.repository.SeatInventoryRepository;
+import com.pbs.bookingservice.repository.ShowRepository;
+import com.pbs.bookingservice.service.BookingCacheService;
+import com.pbs.bookingservice.service.ShowCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seat, show and booking data shaped like the seeded shows: lettered rows of 10 seats, three
+ * price bands.
+ */
+final class Fixtures {
+
+    static final int SEATS_PER_ROW = 10;
+    private static final double[] PRICE_BANDS = {180.0, 250.0, 350.0};
+
+    private Fixtures() {
+    }
+
+    static List<SeatInventory> seats(long firstSeatId, int count) {
+        return seats(firstSeatId, count, SEATS_PER_ROW);
+    }
+
+    static List<SeatInventory> seats(long firstSeatId, int count, int seatsPerRow) {
+        List<SeatInventory> seats = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            seats.add(SeatInventory.builder()
+                    .id(firstSeatId + i)
+                    .seatNumber(seatNumber(i, seatsPerRow))
+                    .price(PRICE_BANDS[(i / seatsPerRow) % PRICE_BANDS.length])
+                    .seatStatus(SeatStatus.AVAILABLE)
+                    .build());
+        }
+        return seats;
+    }
+
+    static String seatNumber(int ordinal, int seatsPerRow) {
+        return (char) ('A' + ordinal / seatsPerRow) + String.valueOf(ordinal % seatsPerRow + 1);
+    }
+
+    static Show show(long showId, int totalSeats) {
+        return Show.builder()
+                .id(showId)
+                .movieId(1L)
+                .theatreId(1L)
+                .showTime(LocalDateTime.now().plusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1).plusHours(3))
+                .totalSeats(totalSeats)
+                .availableSeats(totalSeats)
+                .basePrice(BigDecimal.valueOf(PRICE_BANDS[0]))
+                .status("SCHEDULED")
+                .build();
+    }
+
+    /**
+     * A show cache over the given stand-ins; Redis misses fall through to the repositories.
+     */
+    static ShowCacheService showCache(ShowRepository showRepository, SeatInventoryRepository seatInventoryRepository,
+                                      RedisTemplate<String, String> redisTemplate,
+                                      ApplicationEventPublisher eventPublisher) {
+        return new ShowCacheService(showRepository, seatInventoryRepository, redisTemplate, null,
+                new AppConfig().objectMapper(), eventPublisher, new SimpleMeterRegistry(),
+                10000, Duration.ofMinutes(10), Duration.ofHours(1));
+    }
+
+    static BookingCacheService bookingCache(BookingRepository bookingRepository,
+                                            RedisTemplate<String, String> redisTemplate) {
+        return new BookingCacheService(bookingRepository, redisTemplate, new AppConfig().objectMapper(),
+                new SimpleMeterRegistry(), Duration.ofHours(24), Duration.ofHours(1), false);
+    }
+
+    static Booking booking(long bookingId, long showId, List<SeatInventory> seats) {
+        BigDecimal amount = seats.stream()
+                .map(seat -> BigDecimal.valueOf(seat.getPrice()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Booking booking = new Booking();
+        booking.setId(bookingId);
+        booking.setBookingReference(UlidCreator.getUlid().toString());
+        booking.setUserId(1L);
+        booking.setShowId(showId);
+        booking.setStatus(BookingStatus.PENDING_PAYMENT);
+        booking.setBaseAmount(amount);
+        booking.setDiscountAmount(BigDecimal.ZERO);
+        booking.setFinalAmount(amount);
+        booking.setBookingTime(LocalDateTime.now());
+        booking.setExpiryTime(LocalDateTime.now().plusMinutes(15));
+        List<BookingSeat> bookingSeats = new ArrayList<>(seats.size());
+        for (SeatInventory seat : seats) {
+            BookingSeat bookingSeat = new BookingSeat();
+            bookingSeat.setBooking(booking);
+            bookingSeat.setSeatInventoryId(seat.getId());
+            bookingSeat.setSeatNumber(seat.getSeatNumber());
+            bookingSeat.setPricePaid(seat.getPrice());
+            bookingSeat.setStatus(BookingSeatStatus.PENDING);
+            bookingSeats.add(bookingSeat);
+        }
+        booking.setBookingSeats(bookingSeats);
+        return booking;
+    }
+}
@@ -0,0 +1,143 @@
+package com.pbs.bookingbenchmarks;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Drives a running booking-service over HTTP. The seat layout comes from
+ * {@code GET /api/v1/shows/{showId}/seats}; rows are the leading letters of the seat numbers.
+ * Bookings go to {@code /api/<apiVersion>/booking}: {@code v1} is the servlet API, {@code v2}
+ * the reactive one. Failed requests are classified by the {@code ProblemDetail} the service returns.
+ */
+class HttpBookingClient implements BookingClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String OFFER_CODE = "THIRD_TICKET_50_DISCOUNT";
+
+    private final String baseUrl;
+    private final String bearerToken;
+    private final String bookingPath;
+    private final HttpClient httpClient;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    HttpBookingClient(String baseUrl, String bearerToken, String apiVersion) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.bearerToken = bearerToken;
+        this.bookingPath = "/api/" + apiVersion + "/booking";
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+    }
+
+    @Override
+    public List<List<String>> seatRows(long showId) {
+        HttpResponse<String> response = send(request("/api/v1/shows/" + showId + "/seats").GET());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Failed to load seat map of show " + showId + ": HTTP "
+                    + response.statusCode() + " " + response.body());
+        }
+        Map<String, List<String>> rows = new LinkedHashMap<>();
+        for (JsonNode seat : jsonMapper.readTree(response.body()).path("seats")) {
+            String seatNumber = seat.path("seatNumber").asString();
+            rows.computeIfAbsent(rowOf(seatNumber), row -> new ArrayList<>()).add(seatNumber);
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    @Override
+    public Result initiate(long userId, long showId, List<String> seatNumbers) {
+        Map<String, Object> body = Map.of(
+                "userId", userId,
+                "showId", showId,
+                "seatCount", seatNumbers.size(),
+                "seatNumbers", seatNumbers,
+                "offerCode", OFFER_CODE);
+        HttpResponse<String> response;
+        try {
+            response = send(request(bookingPath)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(body))));
+        } catch (RuntimeException ex) {
+            return Result.of(Outcome.FAILED, ex.getMessage());
+        }
+        if (response.statusCode() == 201) {
+            return Result.ok(jsonMapper.readTree(response.body()).path("booking").path("id").asLong());
+        }
+        return failure(response);
+    }
+
+    @Override
+    public Result confirm(long bookingId) {
+        HttpResponse<String> response;
+        try {
+            response = send(request(bookingPath + "/" + bookingId + "/confirm")
+                    .PUT(HttpRequest.BodyPublishers.noBody()));
+        } catch (RuntimeException ex) {
+            return Result.of(Outcome.FAILED, ex.getMessage());
+        }
+        return response.statusCode() == 200 ? Result.ok(bookingId) : failure(response);
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+
+    private Result failure(HttpResponse<String> response) {
+        String detail = "HTTP " + response.statusCode();
+        try {
+            detail = jsonMapper.readTree(response.body()).path("detail").asString(detail);
+        } catch (RuntimeException ignored) {
+            // not a ProblemDetail body
+        }
+        String normalized = detail.toLowerCase(Locale.ROOT);
+        if (normalized.contains("lock")) {
+            return Result.of(Outcome.LOCK_CONFLICT, detail);
+        }
+        if (normalized.contains("not available")) {
+            return Result.of(Outcome.UNAVAILABLE, detail);
+        }
+        return Result.of(Outcome.FAILED, detail);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT);
+        if (bearerToken != null && !bearerToken.isBlank()) {
+            builder.header("Authorization", "Bearer " + bearerToken);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) {
+        try {
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex.getMessage(), ex);
+        }
+    }
+
+    private static String rowOf(String seatNumber) {
+        int end = 0;
+        while (end < seatNumber.length() && !Character.isDigit(seatNumber.charAt(end))) {
+            end++;
+        }
+        return seatNumber.substring(0, end);
+    }
+}
@@ -0,0 +1,264 @@
+package com.pbs.bookingbenchmarks;
+
+import com.pbs.bookingservice.entity.Booking;
+import com.pbs.bookingservice.entity.SeatInventory;
+import com.pbs.bookingservice.entity.enums.BookingStatus;
+import com.pbs.bookingservice.entity.enums.SeatStatus;
+import com.pbs.bookingservice.repository.BookingRepository;
+import com.pbs.bookingservice.repository.BookingSeatRepository;
+import com.pbs.bookingservice.repository.SeatInventoryRepository;
+import com.pbs.bookingservice.repository.ShowRepository;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Database stand-in for one show. Backs the repository methods used by {@code initiateBooking}
+ * and {@code confirmBooking} with the same conditional-update semantics as their queries.
+ * {@link #inTransaction(Runnable)} undoes a transaction's writes when it throws, so a
+ * confirmation that comes up short leaves nothing behind, as a rollback would. Each repository
+ * call is atomic and pays the {@link SimulatedIo} database latency; transactions are not
+ * serialized, as Postgres would not serialize them either.
+ */
+class InMemoryBookingStore {
+
+    private final long showId;
+    private final List<SeatInventory> layout;
+    private final Map<String, Integer> ordinalBySeatNumber = new HashMap<>();
+    private final Map<Long, Integer> ordinalBySeatId = new HashMap<>();
+    private final SeatStatus[] seatStatuses;
+    private int availableSeats;
+
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+    private final Map<Long, BookingStatus> bookingStatuses = new ConcurrentHashMap<>();
+    private final AtomicLong bookingIds = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ThreadLocal<Deque<Runnable>> undoLog = new ThreadLocal<>();
+    private final SimulatedIo io;
+
+    InMemoryBookingStore(long showId, List<SeatInventory> layout) {
+        this(showId, layout, SimulatedIo.NONE);
+    }
+
+    InMemoryBookingStore(long showId, List<SeatInventory> layout, SimulatedIo io) {
+        this.showId = showId;
+        this.io = io;
+        this.layout = List.copyOf(layout);
+        this.seatStatuses = new SeatStatus[layout.size()];
+        for (int i = 0; i < layout.size(); i++) {
+            ordinalBySeatNumber.put(layout.get(i).getSeatNumber(), i);
+            ordinalBySeatId.put(layout.get(i).getId(), i);
+            seatStatuses[i] = SeatStatus.AVAILABLE;
+        }
+        this.availableSeats = layout.size();
+    }
+
+    long showId() {
+        return showId;
+    }
+
+    List<SeatInventory> layout() {
+        return layout;
+    }
+
+    int countSeats(SeatStatus status) {
+        lock.lock();
+        try {
+            int count = 0;
+            for (SeatStatus seatStatus : seatStatuses) {
+                if (seatStatus == status) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void inTransaction(Runnable work) {
+        Deque<Runnable> undo = new ArrayDeque<>();
+        undoLog.set(undo);
+        try {
+            work.run();
+        } catch (RuntimeException ex) {
+            lock.lock();
+            try {
+                undo.forEach(Runnable::run);
+            } finally {
+                lock.unlock();
+            }
+            throw ex;
+        } finally {
+            undoLog.remove();
+        }
+    }
+
+    SeatInventoryRepository seatInventoryRepository() {
+        return StandIns.of(SeatInventoryRepository.class, withIo(Map.of(
+                "findByShowId", args -> seats(layout.stream().map(SeatInventory::getSeatNumber).toList()),
+                "findByShowIdAndSeatNumberIn", args -> seats(asList(args[1])),
+                "findSeatIdsByShowIdAndSeatStatusNot", args -> seatIdsNotIn((SeatStatus) args[1]),
+                "findSeatNumbersByIdInAndSeatStatusNot", args -> seatNumbersNotIn(asList(args[0]), (SeatStatus) args[1]),
+                "claimSeats", args -> claimSeats(asList(args[0]),
+                        (SeatStatus) args[1], (SeatStatus) args[2]))));
+    }
+
+    BookingRepository bookingRepository() {
+        return StandIns.of(BookingRepository.class, withIo(Map.of(
+                "save", args -> save((Booking) args[0]),
+                "findById", args -> findById((Long) args[0]),
+                "updateStatus", args -> updateStatus((Long) args[0],
+                        (BookingStatus) args[1], (BookingStatus) args[2]))));
+    }
+
+    BookingSeatRepository bookingSeatRepository() {
+        return StandIns.of(BookingSeatRepository.class, withIo(Map.of(
+                "updateStatusByBookingId", args -> bookings.get((Long) args[0]).getBookingSeats().size())));
+    }
+
+    ShowRepository showRepository() {
+        return StandIns.of(ShowRepository.class, withIo(Map.of(
+                "findById", args -> Optional.of(Fixtures.show(showId, layout.size())),
+                "decrementAvailableSeats", args -> decrementAvailableSeats((Integer) args[1]))));
+    }
+
+    private List<SeatInventory> seats(List<String> seatNumbers) {
+        lock.lock();
+        try {
+            List<SeatInventory> seats = new ArrayList<>(seatNumbers.size());
+            for (String seatNumber : seatNumbers) {
+                Integer ordinal = ordinalBySeatNumber.get(seatNumber);
+                if (ordinal == null) {
+                    continue;
+                }
+                SeatInventory seat = layout.get(ordinal);
+                seats.add(SeatInventory.builder()
+                        .id(seat.getId())
+                        .seatNumber(seat.getSeatNumber())
+                        .price(seat.getPrice())
+                        .seatStatus(seatStatuses[ordinal])
+                        .build());
+            }
+            return seats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Long> seatIdsNotIn(SeatStatus status) {
+        lock.lock();
+        try {
+            List<Long> seatIds = new ArrayList<>();
+            for (int ordinal = 0; ordinal < seatStatuses.length; ordinal++) {
+                if (seatStatuses[ordinal] != status) {
+                    seatIds.add(layout.get(ordinal).getId());
+                }
+            }
+            return seatIds;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<String> seatNumbersNotIn(List<Long> seatIds, SeatStatus status) {
+        lock.lock();
+        try {
+            List<String> seatNumbers = new ArrayList<>();
+            for (Long seatId : seatIds) {
+                Integer ordinal = ordinalBySeatId.get(seatId);
+                if (ordinal != null && seatStatuses[ordinal] != status) {
+                    seatNumbers.add(layout.get(ordinal).getSeatNumber());
+                }
+            }
+            return seatNumbers;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int claimSeats(List<Long> seatIds, SeatStatus from, SeatStatus to) {
+        lock.lock();
+        try {
+            int updated = 0;
+            for (Long seatId : seatIds) {
+                Integer ordinal = ordinalBySeatId.get(seatId);
+                if (ordinal != null && seatStatuses[ordinal] == from) {
+                    seatStatuses[ordinal] = to;
+                    onRollback(() -> seatStatuses[ordinal] = from);
+                    updated++;
+                }
+            }
+            return updated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Booking save(Booking booking) {
+        if (booking.getId() == null) {
+            booking.setId(bookingIds.incrementAndGet());
+        }
+        bookings.put(booking.getId(), booking);
+        bookingStatuses.put(booking.getId(), booking.getStatus());
+        return booking;
+    }
+
+    private Optional<Booking> findById(Long bookingId) {
+        Booking booking = bookings.get(bookingId);
+        if (booking != null) {
+            booking.setStatus(bookingStatuses.get(bookingId));
+        }
+        return Optional.ofNullable(booking);
+    }
+
+    private int updateStatus(Long bookingId, BookingStatus from, BookingStatus to) {
+        if (!bookingStatuses.replace(bookingId, from, to)) {
+            return 0;
+        }
+        onRollback(() -> bookingStatuses.put(bookingId, from));
+        return 1;
+    }
+
+    private int decrementAvailableSeats(int count) {
+        lock.lock();
+        try {
+            if (availableSeats < count) {
+                return 0;
+            }
+            availableSeats -= count;
+            onRollback(() -> availableSeats += count);
+            return 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, Function<Object[], Object>> withIo(Map<String, Function<Object[], Object>> handlers) {
+        Map<String, Function<Object[], Object>> timed = new HashMap<>();
+        handlers.forEach((method, handler) -> timed.put(method, args -> io.db(() -> handler.apply(args))));
+        return timed;
+    }
+
+    private void onRollback(Runnable action) {
+        Deque<Runnable> undo = undoLog.get();
+        if (undo != null) {
+            undo.push(action);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> asList(Object value) {
+        return (List<T>) value;
+    }
+}
@@ -0,0 +1,96 @@
+package com.pbs.bookingbenchmarks;
+
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Redis stand-in for {@code SeatLockService} and {@code BookingService}. The seat lock scripts
+ * are emulated by their argument count (lock: owner and ttl, unlock: owner, ttls: none) with the
+ * same owner-checked semantics. Locks never expire and report the full lock time as their TTL.
+ * Plain value writes and pub/sub messages are accepted and dropped. Script calls pay the
+ * {@link SimulatedIo} Redis latency, outside the script lock as the network round trip would.
+ */
+class InMemoryRedisTemplate extends RedisTemplate<String, String> {
+
+    private static final long LOCK_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final ReentrantLock scriptLock = new ReentrantLock();
+    private final SimulatedIo io;
+
+    InMemoryRedisTemplate() {
+        this(SimulatedIo.NONE);
+    }
+
+    InMemoryRedisTemplate(SimulatedIo io) {
+        this.io = io;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ValueOperations<String, String> opsForValue() {
+        return StandIns.of(ValueOperations.class, Map.of());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        io.redis();
+        // Redis runs scripts one at a time
+        scriptLock.lock();
+        try {
+            return (T) switch (args.length) {
+                case 2 -> lock(keys, (String) args[0]);
+                case 1 -> unlock(keys, (String) args[0]);
+                default -> ttls(keys);
+            };
+        } finally {
+            scriptLock.unlock();
+        }
+    }
+
+    @Override
+    public Long convertAndSend(String channel, Object message) {
+        return 0L;
+    }
+
+    @Override
+    public Boolean delete(String key) {
+        return values.remove(key) != null;
+    }
+
+    private Long lock(List<String> keys, String owner) {
+        for (int i = 0; i < keys.size(); i++) {
+            String current = values.get(keys.get(i));
+            if (current != null && !current.equals(owner)) {
+                return (long) i + 1;
+            }
+        }
+        keys.forEach(key -> values.put(key, owner));
+        return 0L;
+    }
+
+    private List<Long> unlock(List<String> keys, String owner) {
+        List<Long> released = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (values.remove(keys.get(i), owner)) {
+                released.add((long) i + 1);
+            }
+        }
+        return released;
+    }
+
+    private List<Long> ttls(List<String> keys) {
+        return keys.stream()
+                .map(key -> values.containsKey(key) ? LOCK_TTL_MILLIS : 0L)
+                .toList();
+    }
+}
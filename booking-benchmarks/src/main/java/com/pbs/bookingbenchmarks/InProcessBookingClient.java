@@ -0,0 +1,150 @@
+package com.pbs.bookingbenchmarks;
+
+import com.pbs.bookingservice.common.event.SeatStatusChangedEvent;
+import com.pbs.bookingservice.common.ex.SeatLockException;
+import com.pbs.bookingservice.common.ex.SeatUnavailableException;
+import com.pbs.bookingservice.common.req.BookingRequest;
+import com.pbs.bookingservice.common.req.OfferDiscountCode;
+import com.pbs.bookingservice.config.AppConfig;
+import com.pbs.bookingservice.entity.SeatInventory;
+import com.pbs.bookingservice.repository.BookingRepository;
+import com.pbs.bookingservice.saga.OutboxNotifier;
+import com.pbs.bookingservice.saga.OutboxRepository;
+import com.pbs.bookingservice.saga.OutboxService;
+import com.pbs.bookingservice.service.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Runs the real {@link BookingService} in-process on top of {@link InMemoryBookingStore} and
+ * {@link InMemoryRedisTemplate}; Kafka is not involved since events only reach the outbox. Seat
+ * status events are delivered to the {@link SeatAvailabilityService} as Spring would.
+ * <p>
+ * With a {@code server} executor each call is handed to it and awaited, the way Tomcat hands a
+ * request to its worker pool; without one the calling thread runs the service directly.
+ */
+class InProcessBookingClient implements BookingClient {
+
+    private final InMemoryBookingStore store;
+    private final int seatsPerRow;
+    private final ExecutorService server;
+    private final BookingService bookingService;
+
+    InProcessBookingClient(InMemoryBookingStore store, int seatsPerRow) {
+        this(store, seatsPerRow, SimulatedIo.NONE, null);
+    }
+
+    InProcessBookingClient(InMemoryBookingStore store, int seatsPerRow, SimulatedIo io, ExecutorService server) {
+        this.store = store;
+        this.seatsPerRow = seatsPerRow;
+        this.server = server;
+        InMemoryRedisTemplate redisTemplate = new InMemoryRedisTemplate(io);
+        BookingMetrics bookingMetrics = new BookingMetrics(new SimpleMeterRegistry());
+        // shows are never updated during a run, so nothing listens for show cache evictions
+        ShowCacheService showCacheService = Fixtures.showCache(store.showRepository(),
+                store.seatInventoryRepository(), redisTemplate, event -> {
+                });
+        SeatAvailabilityService seatAvailabilityService = new SeatAvailabilityService(
+                store.seatInventoryRepository(), redisTemplate, null, showCacheService);
+        ApplicationEventPublisher eventPublisher = event -> {
+            if (event instanceof SeatStatusChangedEvent seatStatusChanged) {
+                seatAvailabilityService.onSeatStatusChanged(seatStatusChanged);
+            }
+        };
+
+        BookingRepository bookingRepository = store.bookingRepository();
+        OutboxRepository outboxRepository = StandIns.of(OutboxRepository.class, Map.of(
+                "save", args -> args[0]));
+        this.bookingService = new BookingService(
+                null,
+                new PricingService(new OfferService()),
+                store.seatInventoryRepository(),
+                bookingRepository,
+                store.bookingSeatRepository(),
+                new SeatLockService(redisTemplate, eventPublisher, bookingMetrics),
+                new OutboxService(outboxRepository, new AppConfig().objectMapper(), new OutboxNotifier(null, null)),
+                store.showRepository(),
+                seatAvailabilityService,
+                new BookingExpiryScheduler(bookingRepository, null),
+                eventPublisher,
+                bookingMetrics,
+                Fixtures.bookingCache(bookingRepository, redisTemplate),
+                new IdempotencyService(redisTemplate, new AppConfig().objectMapper()),
+                null);
+    }
+
+    @Override
+    public List<List<String>> seatRows(long showId) {
+        List<List<String>> rows = new ArrayList<>();
+        List<SeatInventory> layout = store.layout();
+        for (int i = 0; i < layout.size(); i += seatsPerRow) {
+            rows.add(layout.subList(i, Math.min(i + seatsPerRow, layout.size()))
+                    .stream()
+                    .map(SeatInventory::getSeatNumber)
+                    .toList());
+        }
+        return rows;
+    }
+
+    @Override
+    public Result initiate(long userId, long showId, List<String> seatNumbers) {
+        BookingRequest request = BookingRequest.builder()
+                .userId(userId)
+                .showId(showId)
+                .seatCount(seatNumbers.size())
+                .seatNumbers(seatNumbers)
+                .offerCode(OfferDiscountCode.THIRD_TICKET_50_DISCOUNT)
+                .build();
+        return handle(() -> {
+            try {
+                return Result.ok(bookingService.initiateBooking(request).booking().getId());
+            } catch (SeatLockException ex) {
+                return Result.of(Outcome.LOCK_CONFLICT, ex.getMessage());
+            } catch (SeatUnavailableException ex) {
+                return Result.of(Outcome.UNAVAILABLE, ex.getMessage());
+            } catch (RuntimeException ex) {
+                return Result.of(Outcome.FAILED, ex.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public Result confirm(long bookingId) {
+        return handle(() -> {
+            try {
+                store.inTransaction(() -> bookingService.confirmBooking(bookingId));
+                return Result.ok(bookingId);
+            } catch (RuntimeException ex) {
+                return Result.of(Outcome.FAILED, ex.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private Result handle(Supplier<Result> request) {
+        if (server == null) {
+            return request.get();
+        }
+        try {
+            return server.submit(request::get).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.of(Outcome.FAILED, "Interrupted");
+        } catch (ExecutionException ex) {
+            return Result.of(Outcome.FAILED, String.valueOf(ex.getCause()));
+        }
+    }
+}
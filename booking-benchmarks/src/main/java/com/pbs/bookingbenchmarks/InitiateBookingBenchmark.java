@@ -0,0 +1,121 @@
+package com.pbs.bookingbenchmarks;
+
+import com.pbs.bookingservice.common.req.BookingRequest;
+import com.pbs.bookingservice.common.req.OfferDiscountCode;
+import com.pbs.bookingservice.common.resp.BookingResponse;
+import com.pbs.bookingservice.config.AppConfig;
+import com.pbs.bookingservice.entity.Booking;
+import com.pbs.bookingservice.entity.SeatInventory;
+import com.pbs.bookingservice.entity.Show;
+import com.pbs.bookingservice.repository.BookingRepository;
+import com.pbs.bookingservice.repository.BookingSeatRepository;
+import com.pbs.bookingservice.repository.SeatInventoryRepository;
+import com.pbs.bookingservice.repository.ShowRepository;
+import com.pbs.bookingservice.saga.OutboxNotifier;
+import com.pbs.bookingservice.saga.OutboxRepository;
+import com.pbs.bookingservice.saga.OutboxService;
+import com.pbs.bookingservice.service.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link BookingService#initiateBooking} end to end with in-process stand-ins for the database
+ * (repository proxies), Redis ({@link InMemoryRedisTemplate}) and Kafka (not touched on this
+ * path; events go to the outbox). What is left is the service code itself: validation, the
+ * availability check, seat locking, pricing, booking assembly, outbox serialization and expiry
+ * scheduling. The same user re-locks the same seats on every call, which the lock script allows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InitiateBookingBenchmark {
+
+    private static final long SHOW_ID = 1L;
+    private static final int SHOW_SEATS = 100;
+
+    @Param({"1", "3", "6"})
+    private int seatCount;
+
+    private final AtomicLong bookingIds = new AtomicLong();
+    private List<SeatInventory> showSeats;
+    private BookingRequest request;
+    private BookingService bookingService;
+
+    @Setup(Level.Trial)
+    public void setUpData() {
+        showSeats = Fixtures.seats(1L, SHOW_SEATS);
+        List<SeatInventory> requestedSeats = showSeats.subList(0, seatCount);
+        request = BookingRequest.builder()
+                .userId(1L)
+                .showId(SHOW_ID)
+                .seatCount(seatCount)
+                .seatNumbers(requestedSeats.stream().map(SeatInventory::getSeatNumber).toList())
+                .offerCode(OfferDiscountCode.THIRD_TICKET_50_DISCOUNT)
+                .build();
+    }
+
+    // rebuilt every iteration so the expiry wheel does not keep growing across the run
+    @Setup(Level.Iteration)
+    public void setUpService() {
+        InMemoryRedisTemplate redisTemplate = new InMemoryRedisTemplate();
+        BookingMetrics bookingMetrics = new BookingMetrics(new SimpleMeterRegistry());
+        ApplicationEventPublisher eventPublisher = event -> {
+        };
+
+        SeatInventoryRepository seatInventoryRepository = StandIns.of(SeatInventoryRepository.class, Map.of(
+                "findByShowId", args -> showSeats));
+        BookingRepository bookingRepository = StandIns.of(BookingRepository.class, Map.of(
+                "save", args -> {
+                    Booking booking = (Booking) args[0];
+                    booking.setId(bookingIds.incrementAndGet());
+                    return booking;
+                }));
+        OutboxRepository outboxRepository = StandIns.of(OutboxRepository.class, Map.of(
+                "save", args -> args[0]));
+        Show show = Fixtures.show(SHOW_ID, SHOW_SEATS);
+        ShowRepository showRepository = StandIns.of(ShowRepository.class, Map.of(
+                "findById", args -> Optional.of(show)));
+        ShowCacheService showCacheService =
+                Fixtures.showCache(showRepository, seatInventoryRepository, redisTemplate, eventPublisher);
+
+        OfferService offerService = new OfferService();
+        SeatLockService seatLockService = new SeatLockService(redisTemplate, eventPublisher, bookingMetrics);
+        SeatAvailabilityService seatAvailabilityService =
+                new SeatAvailabilityService(seatInventoryRepository, redisTemplate, null, showCacheService);
+        OutboxService outboxService =
+                new OutboxService(outboxRepository, new AppConfig().objectMapper(), new OutboxNotifier(null, null));
+        BookingExpiryScheduler bookingExpiryScheduler = new BookingExpiryScheduler(bookingRepository, null);
+
+        bookingService = new BookingService(
+                null,
+                new PricingService(offerService),
+                seatInventoryRepository,
+                bookingRepository,
+                StandIns.of(BookingSeatRepository.class, Map.of()),
+                seatLockService,
+                outboxService,
+                showRepository,
+                seatAvailabilityService,
+                bookingExpiryScheduler,
+                eventPublisher,
+                bookingMetrics,
+                Fixtures.bookingCache(bookingRepository, redisTemplate),
+                new IdempotencyService(redisTemplate, new AppConfig().objectMapper()),
+                null);
+    }
+
+    @Benchmark
+    public BookingResponse initiateBooking() {
+        return bookingService.initiateBooking(request);
+    }
+}
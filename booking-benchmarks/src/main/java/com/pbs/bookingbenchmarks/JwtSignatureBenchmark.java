@@ -0,0 +1,104 @@
+package com.pbs.bookingbenchmarks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing and verifying access tokens with the two algorithms auth-service can issue
+ * ({@code auth.signing-keys.algorithm}). {@code sign} is auth-service's cost per token, {@code verify}
+ * the bare signature check, and {@code decode} what booking-service pays per request on a
+ * verified-token cache miss: parsing, key selection, signature and claim validation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtSignatureBenchmark {
+
+    @Param({"RS256", "ES256"})
+    private String algorithm;
+
+    private JWSHeader header;
+    private JWTClaimsSet claims;
+    private JWSSigner signer;
+    private JWSVerifier verifier;
+    private NimbusJwtDecoder decoder;
+    private String token;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(algorithm);
+        JWK key = JWSAlgorithm.ES256.equals(jwsAlgorithm)
+                ? new ECKeyGenerator(Curve.P_256).keyID(UUID.randomUUID().toString()).algorithm(jwsAlgorithm).generate()
+                : new RSAKeyGenerator(RSAKeyGenerator.MIN_KEY_SIZE_BITS).keyID(UUID.randomUUID().toString()).algorithm(jwsAlgorithm).generate();
+        if (key instanceof ECKey ecKey) {
+            signer = new ECDSASigner(ecKey);
+            verifier = new ECDSAVerifier(ecKey.toPublicJWK());
+        } else {
+            signer = new RSASSASigner((RSAKey) key);
+            verifier = new RSASSAVerifier(((RSAKey) key).toPublicJWK());
+        }
+        header = new JWSHeader.Builder(jwsAlgorithm).keyID(key.getKeyID()).build();
+        Instant now = Instant.now();
+        claims = new JWTClaimsSet.Builder()
+                .issuer("http://localhost:9000")
+                .subject("user")
+                .audience("oidc-client")
+                .claim("scope", List.of("openid", "profile", "read", "write"))
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(1, ChronoUnit.DAYS)))
+                .build();
+        decoder = NimbusJwtDecoder.withJwkSource(new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())))
+                .jwsAlgorithm(SignatureAlgorithm.from(algorithm))
+                .build();
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() throws JOSEException {
+        SignedJWT jwt = new SignedJWT(header, claims);
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+
+    @Benchmark
+    public boolean verify() throws JOSEException, ParseException {
+        return SignedJWT.parse(token).verify(verifier);
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return decoder.decode(token);
+    }
+}
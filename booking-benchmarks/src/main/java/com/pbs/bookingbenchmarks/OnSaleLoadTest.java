@@ -0,0 +1,282 @@
+package com.pbs.bookingbenchmarks;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * On-sale load test: a crowd of simulated users released at the same instant, racing for the
+ * seats of one show. Each user picks a block of seats ({@link SeatSelector}), starts a booking,
+ * retries with another block on a conflict, and either abandons the hold or confirms it.
+ * <p>
+ * {@code --mode=in-process} (default) runs the real {@code BookingService} against in-memory
+ * stand-ins for Postgres and Redis; {@code --mode=http} drives a running booking-service, through
+ * the servlet API or, with {@code --api-version=v2}, the reactive one.
+ * The report has throughput, initiate/confirm latency percentiles, the lock conflict rate and
+ * the oversell count - seats that ended up in more than one confirmed booking, which must be 0.
+ * <p>
+ * In-process runs can model the servlet container: {@code --server-threads=200} hands every
+ * request to a fixed pool of platform threads like Tomcat's default, {@code --server-threads=virtual}
+ * to a thread per request as with {@code spring.threads.virtual.enabled}. {@code --db-latency-ms},
+ * {@code --redis-latency-ms} and {@code --db-pool} add network round trips and a connection pool
+ * to the stand-ins, so the two modes can be compared on throughput and tail latency.
+ * <pre>
+ * java -cp benchmarks.jar com.pbs.bookingbenchmarks.OnSaleLoadTest --users=20000 --concurrency=2000
+ *      --rows=20 --seats-per-row=20 --skew=1.2 --group-sizes=1:20,2:45,3:15,4:15,6:5 --abandon-rate=0.3
+ * java -cp benchmarks.jar com.pbs.bookingbenchmarks.OnSaleLoadTest --mode=http --base-url=http://localhost:8080
+ *      --token=... --show-id=1
+ * java -cp benchmarks.jar com.pbs.bookingbenchmarks.OnSaleLoadTest --server-threads=virtual --db-pool=20
+ *      --db-latency-ms=2 --redis-latency-ms=0.5
+ * </pre>
+ */
+public class OnSaleLoadTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, String> options;
+    private final Recorder initiateLatency = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Recorder confirmLatency = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder initiateRequests = new LongAdder();
+    private final LongAdder confirmRequests = new LongAdder();
+    private final LongAdder lockConflicts = new LongAdder();
+    private final LongAdder unavailable = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder gaveUp = new LongAdder();
+    private final LongAdder oversold = new LongAdder();
+    private final Map<String, Long> soldSeats = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> failureDetails = new ConcurrentHashMap<>();
+
+    OnSaleLoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator < 0) {
+                options.put(option, "true");
+            } else {
+                options.put(option.substring(0, separator), option.substring(separator + 1));
+            }
+        }
+        new OnSaleLoadTest(options).run();
+    }
+
+    void run() throws InterruptedException {
+        long showId = longOption("show-id", 1);
+        int users = intOption("users", 20000);
+        int concurrency = intOption("concurrency", 2000);
+        int maxAttempts = intOption("max-attempts", 3);
+        double abandonRate = doubleOption("abandon-rate", 0.3);
+        long payTimeMs = longOption("pay-time-ms", 0);
+        long seed = longOption("seed", System.nanoTime());
+
+        try (BookingClient client = createClient(showId)) {
+            List<List<String>> rows = client.seatRows(showId);
+            int totalSeats = rows.stream().mapToInt(List::size).sum();
+            SeatSelector selector = new SeatSelector(rows,
+                    doubleOption("skew", 1.2), options.getOrDefault("group-sizes", "1:20,2:45,3:15,4:15,6:5"));
+            System.out.printf("On-sale load test: %d users (%d concurrent) for %d seats of show %d, mode %s, server threads %s%n",
+                    users, concurrency, totalSeats, showId, options.getOrDefault("mode", "in-process"),
+                    options.getOrDefault("server-threads", "caller"));
+
+            Semaphore inFlight = new Semaphore(concurrency);
+            CountDownLatch startGate = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(users);
+            long startNanos;
+            try (ExecutorService crowd = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int user = 0; user < users; user++) {
+                    long userId = 1_000_000L + user;
+                    Random random = new Random(seed + user);
+                    crowd.execute(() -> {
+                        try {
+                            startGate.await();
+                            inFlight.acquire();
+                            try {
+                                simulateUser(client, selector, random, showId, userId,
+                                        maxAttempts, abandonRate, payTimeMs);
+                            } finally {
+                                inFlight.release();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                }
+                startNanos = System.nanoTime();
+                startGate.countDown();
+                done.await();
+            }
+            report(System.nanoTime() - startNanos, totalSeats);
+        }
+    }
+
+    private void simulateUser(BookingClient client, SeatSelector selector, Random random, long showId,
+                              long userId, int maxAttempts, double abandonRate, long payTimeMs)
+            throws InterruptedException {
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            List<String> seats = selector.pick(random);
+            long started = System.nanoTime();
+            BookingClient.Result result = client.initiate(userId, showId, seats);
+            initiateLatency.recordValue(micros(started));
+            initiateRequests.increment();
+
+            switch (result.outcome()) {
+                case LOCK_CONFLICT -> {
+                    lockConflicts.increment();
+                    continue;
+                }
+                case UNAVAILABLE -> {
+                    unavailable.increment();
+                    continue;
+                }
+                case FAILED -> {
+                    recordFailure(result);
+                    return;
+                }
+                case OK -> {
+                    // handled below
+                }
+            }
+
+            if (random.nextDouble() < abandonRate) {
+                abandoned.increment();
+                return;
+            }
+            if (payTimeMs > 0) {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(payTimeMs + 1));
+            }
+            started = System.nanoTime();
+            BookingClient.Result confirmation = client.confirm(result.bookingId());
+            confirmLatency.recordValue(micros(started));
+            confirmRequests.increment();
+            if (confirmation.outcome() == BookingClient.Outcome.OK) {
+                confirmed.increment();
+                for (String seat : seats) {
+                    if (soldSeats.putIfAbsent(seat, result.bookingId()) != null) {
+                        oversold.increment();
+                    }
+                }
+            } else {
+                recordFailure(confirmation);
+            }
+            return;
+        }
+        gaveUp.increment();
+    }
+
+    private void recordFailure(BookingClient.Result result) {
+        failures.increment();
+        failureDetails.computeIfAbsent(String.valueOf(result.detail()), detail -> new LongAdder()).increment();
+    }
+
+    private BookingClient createClient(long showId) {
+        if ("http".equals(options.get("mode"))) {
+            return new HttpBookingClient(options.getOrDefault("base-url", "http://localhost:8080"),
+                    options.get("token"), options.getOrDefault("api-version", "v1"));
+        }
+        int rows = intOption("rows", 20);
+        int seatsPerRow = intOption("seats-per-row", 20);
+        if (rows > 26) {
+            throw new IllegalArgumentException("--rows is limited to 26 (rows A-Z)");
+        }
+        SimulatedIo io = new SimulatedIo(latencyOption("db-latency-ms"), latencyOption("redis-latency-ms"),
+                intOption("db-pool", 5));
+        InMemoryBookingStore store = new InMemoryBookingStore(showId,
+                Fixtures.seats(1L, rows * seatsPerRow, seatsPerRow), io);
+        return new InProcessBookingClient(store, seatsPerRow, io, serverExecutor());
+    }
+
+    private ExecutorService serverExecutor() {
+        String serverThreads = options.get("server-threads");
+        if (serverThreads == null) {
+            return null;
+        }
+        if ("virtual".equals(serverThreads)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("server-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(Integer.parseInt(serverThreads),
+                Thread.ofPlatform().name("server-", 0).daemon().factory());
+    }
+
+    private void report(long elapsedNanos, int totalSeats) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long initiates = initiateRequests.sum();
+        long confirms = confirmRequests.sum();
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Duration            %.2f s", seconds));
+        lines.add(String.format("Throughput          %.0f req/s (%d initiate, %d confirm)",
+                (initiates + confirms) / seconds, initiates, confirms));
+        lines.add(String.format("Confirmed bookings  %d (%.0f/s), %d of %d seats sold",
+                confirmed.sum(), confirmed.sum() / seconds, soldSeats.size(), totalSeats));
+        lines.add(latencyLine("Initiate latency   ", initiateLatency.getIntervalHistogram()));
+        lines.add(latencyLine("Confirm latency    ", confirmLatency.getIntervalHistogram()));
+        lines.add(String.format("Lock conflict rate  %.2f%% (%d of %d initiate requests)",
+                percent(lockConflicts.sum(), initiates), lockConflicts.sum(), initiates));
+        lines.add(String.format("Seat sold out rate  %.2f%% (%d)", percent(unavailable.sum(), initiates), unavailable.sum()));
+        lines.add(String.format("Abandoned holds     %d", abandoned.sum()));
+        lines.add(String.format("Users without seats %d (gave up after retries)", gaveUp.sum()));
+        lines.add(String.format("Failed requests     %d", failures.sum()));
+        failureDetails.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .limit(5)
+                .forEach(failure -> lines.add(String.format("    %6d x %s", failure.getValue().sum(), failure.getKey())));
+        lines.add(String.format("Oversold seats      %d", oversold.sum()));
+        lines.forEach(System.out::println);
+    }
+
+    private static String latencyLine(String label, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return label + " n/a";
+        }
+        return String.format("%s p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms", label,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : part * 100.0 / total;
+    }
+
+    private static long micros(long startedNanos) {
+        return Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedNanos), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    private long longOption(String name, long defaultValue) {
+        return Long.parseLong(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    private Duration latencyOption(String name) {
+        return Duration.ofNanos(Math.round(doubleOption(name, 0) * 1_000_000));
+    }
+
+    private double doubleOption(String name, double defaultValue) {
+        return Double.parseDouble(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+}
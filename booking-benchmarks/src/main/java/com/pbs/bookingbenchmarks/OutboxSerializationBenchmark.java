@@ -0,0 +1,70 @@
+package com.pbs.bookingbenchmarks;
+
+import com.pbs.bookingservice.config.AppConfig;
+import com.pbs.bookingservice.entity.Booking;
+import com.pbs.bookingservice.saga.OutboxEvent;
+import com.pbs.bookingservice.saga.OutboxNotifier;
+import com.pbs.bookingservice.saga.OutboxRepository;
+import com.pbs.bookingservice.saga.OutboxService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building outbox events in {@link OutboxService}: payload map, Jackson serialization and entity
+ * setup. The repository is a stand-in that hands the saved event to a {@link Blackhole}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OutboxSerializationBenchmark {
+
+    private static final int EXPIRY_BATCH_SIZE = 100;
+
+    private OutboxService outboxService;
+    private Booking booking;
+    private List<Booking> expiryBatch;
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        OutboxRepository outboxRepository = StandIns.of(OutboxRepository.class, Map.of(
+                "save", args -> consume(args[0]),
+                "saveAll", args -> consume(args[0])));
+        // the notifier is disabled unless booking.outbox.notify.enabled is injected
+        outboxService = new OutboxService(outboxRepository, new AppConfig().objectMapper(), new OutboxNotifier(null, null));
+        booking = Fixtures.booking(1L, 1L, Fixtures.seats(1L, 3));
+        expiryBatch = new ArrayList<>(EXPIRY_BATCH_SIZE);
+        for (int i = 0; i < EXPIRY_BATCH_SIZE; i++) {
+            expiryBatch.add(Fixtures.booking(i + 1L, 1L, Fixtures.seats(i * 10L + 1, 3)));
+        }
+    }
+
+    @Benchmark
+    public void bookingInitiatedEvent() {
+        outboxService.saveBookingInitiatedEvent(booking);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EXPIRY_BATCH_SIZE)
+    public void bookingExpiredEventBatch() {
+        outboxService.saveBookingExpiredEvents(expiryBatch);
+    }
+
+    private Object consume(Object saved) {
+        if (saved instanceof OutboxEvent event) {
+            blackhole.consume(event.getPayload());
+        } else {
+            blackhole.consume(saved);
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,49 @@
+package com.pbs.bookingbenchmarks;
+
+import com.pbs.bookingservice.common.req.OfferDiscountCode;
+import com.pbs.bookingservice.common.resp.PricingDetails;
+import com.pbs.bookingservice.entity.SeatInventory;
+import com.pbs.bookingservice.service.OfferService;
+import com.pbs.bookingservice.service.PricingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PricingService#calculatePricing} and {@link OfferService#applyOffer} for the group sizes
+ * a booking request allows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+
+    @Param({"1", "3", "6", "10"})
+    private int seatCount;
+
+    private OfferService offerService;
+    private PricingService pricingService;
+    private List<SeatInventory> seats;
+
+    @Setup
+    public void setUp() {
+        offerService = new OfferService();
+        pricingService = new PricingService(offerService);
+        seats = Fixtures.seats(1L, seatCount);
+    }
+
+    @Benchmark
+    public PricingDetails calculatePricing() {
+        return pricingService.calculatePricing(seats, OfferDiscountCode.THIRD_TICKET_50_DISCOUNT);
+    }
+
+    @Benchmark
+    public BigDecimal applyOffer() {
+        return offerService.applyOffer(OfferDiscountCode.THIRD_TICKET_50_DISCOUNT, seats);
+    }
+}
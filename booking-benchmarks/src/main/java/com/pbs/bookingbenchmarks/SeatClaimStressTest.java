@@ -0,0 +1,278 @@
+package com.pbs.bookingbenchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stress test of the confirmation's row claims against a real Postgres: threads race to move
+ * overlapping seat groups of one hot section from AVAILABLE to BOOKED and take them off the show
+ * counter, in one transaction each, then release them again so the seats keep cycling.
+ * <p>
+ * {@code request} order claims the seats one row at a time in the order the user listed them, the
+ * worst case of a plan-dependent {@code UPDATE ... IN}; {@code global} order claims them with the
+ * statement of {@code SeatInventoryRepository#claimSeats}, rows locked in id order. The report
+ * counts Postgres deadlocks (SQLSTATE 40P01), conflicts (a seat already taken, so the attempt rolls
+ * back) and commits, and checks the show counter against the seat rows afterwards.
+ * <p>
+ * The tables live in their own schema ({@code --schema}, recreated on every run), so the test
+ * can point at the application database.
+ * <pre>
+ * java -cp benchmarks.jar com.pbs.bookingbenchmarks.SeatClaimStressTest --jdbc-url=jdbc:postgresql://localhost:5432/mtb
+ *      --user=kaizen --password=admin --threads=32 --hot-seats=20 --group-size=4 --duration-s=20 --order=both
+ * </pre>
+ */
+public class SeatClaimStressTest {
+
+    private static final String DEADLOCK_DETECTED = "40P01";
+    private static final long SHOW_ID = 1L;
+
+    // SeatInventoryRepository#claimSeats
+    private static final String CLAIM_IN_ID_ORDER_SQL = "WITH claimed AS (SELECT id FROM seat_inventory "
+            + "WHERE id = ANY (?) AND seat_status = ? ORDER BY id FOR UPDATE) "
+            + "UPDATE seat_inventory s SET seat_status = ? FROM claimed WHERE s.id = claimed.id";
+    private static final String CLAIM_ONE_SQL = "UPDATE seat_inventory SET seat_status = ? WHERE id = ? AND seat_status = ?";
+    private static final String SHOW_COUNTER_SQL = "UPDATE show SET available_seats = available_seats + ? WHERE id = ?";
+
+    private final Map<String, String> options;
+
+    SeatClaimStressTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int separator = option.indexOf('=');
+            if (separator < 0) {
+                options.put(option, "true");
+            } else {
+                options.put(option.substring(0, separator), option.substring(separator + 1));
+            }
+        }
+        new SeatClaimStressTest(options).run();
+    }
+
+    void run() throws Exception {
+        String order = options.getOrDefault("order", "both");
+        System.out.printf("Seat claim stress test: %d threads, groups of %d from %d hot seats, %d s per order, hold %d ms%n",
+                intOption("threads", 32), intOption("group-size", 4), intOption("hot-seats", 20),
+                intOption("duration-s", 20), intOption("hold-ms", 1));
+        if (!"global".equals(order)) {
+            runOrder(false);
+        }
+        if (!"request".equals(order)) {
+            runOrder(true);
+        }
+    }
+
+    private void runOrder(boolean globalOrder) throws Exception {
+        int threads = intOption("threads", 32);
+        int hotSeats = intOption("hot-seats", 20);
+        int groupSize = intOption("group-size", 4);
+        long holdMs = intOption("hold-ms", 1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(intOption("duration-s", 20));
+        createTables(hotSeats);
+
+        Counters counters = new Counters();
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            workers.add(Thread.ofPlatform().name("claimer-", i).start(() -> {
+                try (Connection connection = connect()) {
+                    connection.setAutoCommit(false);
+                    while (System.nanoTime() < deadline) {
+                        List<Long> seatIds = randomGroup(hotSeats, groupSize);
+                        if (attempt(connection, seatIds, globalOrder, holdMs, counters)) {
+                            release(connection, seatIds);
+                        }
+                    }
+                } catch (Exception ex) {
+                    counters.errors.increment();
+                    System.err.println("Worker failed: " + ex.getMessage());
+                } finally {
+                    done.countDown();
+                }
+            }));
+        }
+        done.await();
+        report(globalOrder ? "global (id order)" : "request order", counters);
+    }
+
+    private boolean attempt(Connection connection, List<Long> seatIds, boolean globalOrder, long holdMs,
+                            Counters counters) throws SQLException, InterruptedException {
+        counters.attempts.increment();
+        try {
+            int claimed = globalOrder ? claimInIdOrder(connection, seatIds) : claimInRequestOrder(connection, seatIds, holdMs);
+            if (claimed != seatIds.size()) {
+                connection.rollback();
+                counters.conflicts.increment();
+                return false;
+            }
+            if (holdMs > 0) {
+                Thread.sleep(holdMs);
+            }
+            updateShowCounter(connection, -seatIds.size());
+            connection.commit();
+            counters.committed.increment();
+            return true;
+        } catch (SQLException ex) {
+            connection.rollback();
+            if (DEADLOCK_DETECTED.equals(ex.getSQLState())) {
+                counters.deadlocks.increment();
+                return false;
+            }
+            throw ex;
+        }
+    }
+
+    private static int claimInIdOrder(Connection connection, List<Long> seatIds) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(CLAIM_IN_ID_ORDER_SQL)) {
+            statement.setArray(1, connection.createArrayOf("bigint", seatIds.toArray()));
+            statement.setString(2, "AVAILABLE");
+            statement.setString(3, "BOOKED");
+            return statement.executeUpdate();
+        }
+    }
+
+    // the think time between rows widens the window in which two claims cross
+    private static int claimInRequestOrder(Connection connection, List<Long> seatIds, long holdMs)
+            throws SQLException, InterruptedException {
+        int claimed = 0;
+        try (PreparedStatement statement = connection.prepareStatement(CLAIM_ONE_SQL)) {
+            for (Long seatId : seatIds) {
+                statement.setString(1, "BOOKED");
+                statement.setLong(2, seatId);
+                statement.setString(3, "AVAILABLE");
+                int updated = statement.executeUpdate();
+                if (updated == 0) {
+                    return claimed;
+                }
+                claimed += updated;
+                if (holdMs > 0) {
+                    Thread.sleep(holdMs);
+                }
+            }
+        }
+        return claimed;
+    }
+
+    // in id order as well, so releases never deadlock with claims in either mode
+    private static void release(Connection connection, List<Long> seatIds) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(CLAIM_IN_ID_ORDER_SQL)) {
+            statement.setArray(1, connection.createArrayOf("bigint", seatIds.toArray()));
+            statement.setString(2, "BOOKED");
+            statement.setString(3, "AVAILABLE");
+            statement.executeUpdate();
+        }
+        updateShowCounter(connection, seatIds.size());
+        connection.commit();
+    }
+
+    private static void updateShowCounter(Connection connection, int delta) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SHOW_COUNTER_SQL)) {
+            statement.setInt(1, delta);
+            statement.setLong(2, SHOW_ID);
+            statement.executeUpdate();
+        }
+    }
+
+    // users list their seats in any order
+    private static List<Long> randomGroup(int hotSeats, int groupSize) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(hotSeats - groupSize + 1);
+        List<Long> seatIds = new ArrayList<>(groupSize);
+        for (int i = 0; i < groupSize; i++) {
+            seatIds.add((long) first + i + 1);
+        }
+        Collections.shuffle(seatIds, random);
+        return seatIds;
+    }
+
+    private void createTables(int hotSeats) throws SQLException {
+        String schema = schema();
+        try (Connection connection = DriverManager.getConnection(jdbcUrl(), user(), password());
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            statement.execute("CREATE SCHEMA " + schema);
+            statement.execute("CREATE TABLE " + schema + ".seat_inventory (id bigint PRIMARY KEY, seat_status varchar(255) NOT NULL)");
+            statement.execute("CREATE TABLE " + schema + ".show (id bigint PRIMARY KEY, available_seats integer NOT NULL)");
+            statement.execute("INSERT INTO " + schema + ".seat_inventory SELECT g, 'AVAILABLE' FROM generate_series(1, "
+                    + hotSeats + ") g");
+            statement.execute("INSERT INTO " + schema + ".show VALUES (" + SHOW_ID + ", " + hotSeats + ")");
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(jdbcUrl(), user(), password());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + schema());
+        }
+        return connection;
+    }
+
+    private void report(String label, Counters counters) throws SQLException {
+        long attempts = counters.attempts.sum();
+        long aborted = counters.conflicts.sum() + counters.deadlocks.sum();
+        String counterCheck;
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT (SELECT available_seats FROM show WHERE id = " + SHOW_ID
+                     + "), (SELECT count(*) FROM seat_inventory WHERE seat_status = 'AVAILABLE')")) {
+            result.next();
+            counterCheck = result.getLong(1) == result.getLong(2)
+                    ? "consistent (" + result.getLong(1) + ")"
+                    : "MISMATCH - show says " + result.getLong(1) + ", seats say " + result.getLong(2);
+        }
+        System.out.println();
+        System.out.println("Order: " + label);
+        System.out.printf("Attempts            %d%n", attempts);
+        System.out.printf("Committed           %d%n", counters.committed.sum());
+        System.out.printf("Aborted             %d (%.2f%%)%n", aborted, attempts == 0 ? 0 : aborted * 100.0 / attempts);
+        System.out.printf("    deadlocks       %d%n", counters.deadlocks.sum());
+        System.out.printf("    seat conflicts  %d%n", counters.conflicts.sum());
+        System.out.printf("Worker errors       %d%n", counters.errors.sum());
+        System.out.printf("Show counter        %s%n", counterCheck);
+    }
+
+    private String jdbcUrl() {
+        return options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/mtb");
+    }
+
+    private String user() {
+        return options.getOrDefault("user", "kaizen");
+    }
+
+    private String password() {
+        return options.getOrDefault("password", "admin");
+    }
+
+    private String schema() {
+        return options.getOrDefault("schema", "seat_claim_stress");
+    }
+
+    private int intOption(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    private static final class Counters {
+        final LongAdder attempts = new LongAdder();
+        final LongAdder committed = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder deadlocks = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+}
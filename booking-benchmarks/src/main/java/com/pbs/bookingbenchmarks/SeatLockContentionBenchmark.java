@@ -0,0 +1,142 @@
+package com.pbs.bookingbenchmarks;
+
+import com.pbs.bookingservice.service.BookingMetrics;
+import com.pbs.bookingservice.service.SeatLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group seat locking under contention against a real Redis ({@code -Dredis.host}, {@code -Dredis.port};
+ * localhost:6379 by default). Every thread is a different user grabbing a random block of adjacent
+ * seats from a small hot section and releasing it again. {@code perSeat} takes one lock per round
+ * trip and backs out on the first conflict, as the booking path used to, in the order the user
+ * picked the seats; {@code perSeatOrdered} does the same in the global seat id order, so two users
+ * after overlapping groups meet on their lowest shared seat instead of each holding half;
+ * {@code batched} takes the whole group with {@link SeatLockService#lockSeats} in one script call.
+ * The {@code acquired} and {@code conflicts} counters show how often each path wins the whole group.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class SeatLockContentionBenchmark {
+
+    private static final long SHOW_ID = 1L;
+    // far away from the seeded seat ids
+    private static final long FIRST_SEAT_ID = 9_000_000L;
+
+    @State(Scope.Benchmark)
+    public static class Redis {
+
+        @Param({"2", "6"})
+        int groupSize;
+
+        @Param({"20"})
+        int hotSeats;
+
+        LettuceConnectionFactory connectionFactory;
+        SeatLockService seatLockService;
+
+        @Setup
+        public void setUp() {
+            RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                    System.getProperty("redis.host", "localhost"),
+                    Integer.getInteger("redis.port", 6379));
+            connectionFactory = new LettuceConnectionFactory(configuration);
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+
+            RedisTemplate<String, String> redisTemplate = new RedisTemplate<>();
+            redisTemplate.setConnectionFactory(connectionFactory);
+            redisTemplate.setKeySerializer(StringRedisSerializer.UTF_8);
+            redisTemplate.setValueSerializer(StringRedisSerializer.UTF_8);
+            redisTemplate.afterPropertiesSet();
+            seatLockService = new SeatLockService(redisTemplate, event -> {
+            }, new BookingMetrics(new SimpleMeterRegistry()));
+        }
+
+        @TearDown
+        public void tearDown() {
+            connectionFactory.destroy();
+        }
+
+        List<Long> randomGroup() {
+            int first = ThreadLocalRandom.current().nextInt(hotSeats - groupSize + 1);
+            List<Long> seatIds = new ArrayList<>(groupSize);
+            for (int i = 0; i < groupSize; i++) {
+                seatIds.add(FIRST_SEAT_ID + first + i);
+            }
+            // users pick their seats in any order
+            Collections.shuffle(seatIds, ThreadLocalRandom.current());
+            return seatIds;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class User {
+
+        private static final AtomicLong USER_IDS = new AtomicLong();
+
+        final Long userId = USER_IDS.incrementAndGet();
+        public long acquired;
+        public long conflicts;
+
+        void record(boolean locked) {
+            if (locked) {
+                acquired++;
+            } else {
+                conflicts++;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean perSeat(Redis redis, User user) {
+        return lockOneByOne(redis, user, redis.randomGroup());
+    }
+
+    @Benchmark
+    public boolean perSeatOrdered(Redis redis, User user) {
+        return lockOneByOne(redis, user, SeatLockService.inLockOrder(redis.randomGroup()));
+    }
+
+    private static boolean lockOneByOne(Redis redis, User user, List<Long> seatIds) {
+        List<Long> locked = new ArrayList<>(seatIds.size());
+        boolean acquired = true;
+        for (Long seatId : seatIds) {
+            if (!redis.seatLockService.lockSeat(seatId, user.userId)) {
+                acquired = false;
+                break;
+            }
+            locked.add(seatId);
+        }
+        locked.forEach(redis.seatLockService::unlockSeat);
+        user.record(acquired);
+        return acquired;
+    }
+
+    @Benchmark
+    public boolean batched(Redis redis, User user) {
+        List<Long> seatIds = redis.randomGroup();
+        boolean acquired = redis.seatLockService.lockSeats(SHOW_ID, seatIds, user.userId);
+        if (acquired) {
+            redis.seatLockService.unlockSeats(SHOW_ID, seatIds, user.userId);
+        }
+        user.record(acquired);
+        return acquired;
+    }
+}
@@ -0,0 +1,59 @@
+package com.pbs.bookingbenchmarks;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Picks the seats a simulated user goes for: a row drawn with a Zipf-like bias towards the
+ * front ({@code skew} 0 is uniform, higher values crowd the first rows), a group size from a
+ * weighted distribution and a block of adjacent seats at a random position in that row.
+ */
+class SeatSelector {
+
+    private final List<List<String>> rows;
+    private final double[] cumulativeRowWeights;
+    private final int[] groupSizes;
+    private final double[] cumulativeGroupWeights;
+
+    SeatSelector(List<List<String>> rows, double skew, String groupSizeDistribution) {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("The show has no seats");
+        }
+        this.rows = rows;
+        this.cumulativeRowWeights = new double[rows.size()];
+        double total = 0;
+        for (int row = 0; row < rows.size(); row++) {
+            total += 1.0 / Math.pow(row + 1, skew);
+            cumulativeRowWeights[row] = total;
+        }
+
+        // e.g. "1:20,2:45,3:15,4:15,6:5" - group size : weight
+        String[] entries = groupSizeDistribution.split(",");
+        this.groupSizes = new int[entries.length];
+        this.cumulativeGroupWeights = new double[entries.length];
+        double groupTotal = 0;
+        for (int i = 0; i < entries.length; i++) {
+            String[] sizeAndWeight = entries[i].trim().split(":");
+            groupSizes[i] = Integer.parseInt(sizeAndWeight[0].trim());
+            groupTotal += sizeAndWeight.length > 1 ? Double.parseDouble(sizeAndWeight[1].trim()) : 1.0;
+            cumulativeGroupWeights[i] = groupTotal;
+        }
+    }
+
+    List<String> pick(Random random) {
+        List<String> row = rows.get(draw(cumulativeRowWeights, random));
+        int groupSize = Math.min(groupSizes[draw(cumulativeGroupWeights, random)], row.size());
+        int first = random.nextInt(row.size() - groupSize + 1);
+        return row.subList(first, first + groupSize);
+    }
+
+    private static int draw(double[] cumulativeWeights, Random random) {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (target < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+}
@@ -0,0 +1,54 @@
+package com.pbs.bookingbenchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Network time the in-memory stand-ins add to each call: a Postgres round trip holds one of a
+ * fixed number of pooled connections (as Hikari would) while it sleeps, a Redis round trip just
+ * sleeps. Sleeping is what makes the caller's threading model show: a platform thread is tied up
+ * for the whole wait, a virtual thread unmounts from its carrier.
+ */
+class SimulatedIo {
+
+    static final SimulatedIo NONE = new SimulatedIo(Duration.ZERO, Duration.ZERO, Integer.MAX_VALUE);
+
+    private final Duration dbLatency;
+    private final Duration redisLatency;
+    private final Semaphore connections;
+
+    SimulatedIo(Duration dbLatency, Duration redisLatency, int connectionPoolSize) {
+        this.dbLatency = dbLatency;
+        this.redisLatency = redisLatency;
+        this.connections = new Semaphore(connectionPoolSize, true);
+    }
+
+    <T> T db(Supplier<T> call) {
+        if (dbLatency.isZero()) {
+            return call.get();
+        }
+        connections.acquireUninterruptibly();
+        try {
+            sleep(dbLatency);
+            return call.get();
+        } finally {
+            connections.release();
+        }
+    }
+
+    void redis() {
+        if (!redisLatency.isZero()) {
+            sleep(redisLatency);
+        }
+    }
+
+    private static void sleep(Duration latency) {
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.pbs.bookingbenchmarks;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * In-process stand-ins for Spring Data repositories and other interfaces. Only the methods
+ * given a handler do anything; every other call returns an empty value for its return type.
+ */
+final class StandIns {
+
+    private StandIns() {
+    }
+
+    static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (self, method, args) -> {
+                    Function<Object[], Object> handler = handlers.get(method.getName());
+                    if (handler != null) {
+                        return handler.apply(args);
+                    }
+                    return switch (method.getName()) {
+                        case "toString" -> type.getSimpleName() + " stand-in";
+                        case "hashCode" -> System.identityHashCode(self);
+                        case "equals" -> self == args[0];
+                        default -> emptyValue(method);
+                    };
+                });
+        return type.cast(proxy);
+    }
+
+    private static Object emptyValue(Method method) {
+        Class<?> returnType = method.getReturnType();
+        if (returnType == List.class) {
+            return Collections.emptyList();
+        }
+        if (returnType == Optional.class) {
+            return Optional.empty();
+        }
+        if (returnType == boolean.class) {
+            return false;
+        }
+        if (returnType == int.class) {
+            return 0;
+        }
+        if (returnType == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
@@ -4,8 +4,10 @@ import com.pbs.bookingservice.service.BookingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 @RequiredArgsConstructor
 public class BookingServiceApplication {
 
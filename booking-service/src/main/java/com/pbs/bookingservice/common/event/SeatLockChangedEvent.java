@@ -0,0 +1,10 @@
+package com.pbs.bookingservice.common.event;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Seats locked ({@code lockedUntil} set) or released ({@code lockedUntil} null) in Redis.
+ */
+public record SeatLockChangedEvent(Long showId, List<Long> seatIds, Instant lockedUntil) {
+}
@@ -0,0 +1,8 @@
+package com.pbs.bookingservice.common.event;
+
+import com.pbs.bookingservice.common.resp.SeatMapDelta;
+
+import java.util.List;
+
+public record SeatMapChangedEvent(Long showId, List<SeatMapDelta> deltas) {
+}
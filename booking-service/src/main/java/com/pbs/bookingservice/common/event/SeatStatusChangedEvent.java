@@ -0,0 +1,8 @@
+package com.pbs.bookingservice.common.event;
+
+import com.pbs.bookingservice.entity.enums.SeatStatus;
+
+import java.util.List;
+
+public record SeatStatusChangedEvent(Long showId, List<Long> seatIds, SeatStatus status) {
+}
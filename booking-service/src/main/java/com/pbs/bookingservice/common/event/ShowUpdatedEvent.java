@@ -0,0 +1,7 @@
+package com.pbs.bookingservice.common.event;
+
+/**
+ * A show or its seat layout changed; cached copies of either are stale.
+ */
+public record ShowUpdatedEvent(Long showId) {
+}
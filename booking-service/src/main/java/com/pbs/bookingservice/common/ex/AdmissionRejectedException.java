@@ -0,0 +1,27 @@
+package com.pbs.bookingservice.common.ex;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * A booking request was not admitted for its show in time. It keeps its place in the show's
+ * waiting room when it is retried with {@link #getTicket()}.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+    private final String ticket;
+    private final int position;
+    private final Duration retryAfter;
+
+    /**
+     * @param ticket   null when the waiting room was full and no ticket was issued
+     * @param position 1-based place in the waiting room, 0 without a ticket
+     */
+    public AdmissionRejectedException(String message, String ticket, int position, Duration retryAfter) {
+        super(message);
+        this.ticket = ticket;
+        this.position = position;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,7 @@
+package com.pbs.bookingservice.common.ex;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
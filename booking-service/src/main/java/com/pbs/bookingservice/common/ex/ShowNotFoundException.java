@@ -0,0 +1,10 @@
+package com.pbs.bookingservice.common.ex;
+
+public class ShowNotFoundException extends RuntimeException {
+    public ShowNotFoundException(String message) {
+        super(message);
+    }
+    public ShowNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,13 @@
+package com.pbs.bookingservice.common.resp;
+
+import com.pbs.bookingservice.entity.enums.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record BookingHistoryItem(Long bookingId, String bookingReference, Long showId, BookingStatus status,
+                                 BigDecimal baseAmount, BigDecimal discountAmount, BigDecimal finalAmount,
+                                 LocalDateTime bookingTime, LocalDateTime expiryTime,
+                                 List<BookingSeatResponse> seats) {
+}
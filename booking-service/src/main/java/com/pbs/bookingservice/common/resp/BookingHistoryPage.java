@@ -0,0 +1,9 @@
+package com.pbs.bookingservice.common.resp;
+
+import java.util.List;
+
+/**
+ * @param nextCursor pass as {@code cursor} to get the next page; null on the last page
+ */
+public record BookingHistoryPage(List<BookingHistoryItem> bookings, String nextCursor) {
+}
@@ -0,0 +1,4 @@
+package com.pbs.bookingservice.common.resp;
+
+public record SeatMapDelta(int ordinal, SeatMapStatus status, long version) {
+}
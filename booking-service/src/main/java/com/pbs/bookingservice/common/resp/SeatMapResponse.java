@@ -0,0 +1,10 @@
+package com.pbs.bookingservice.common.resp;
+
+import java.util.List;
+
+/**
+ * Seat map body of {@code GET /shows/{showId}/seats}. It holds nothing node-specific, so every
+ * node serializes the same seat state to the same bytes and the same ETag.
+ */
+public record SeatMapResponse(Long showId, List<SeatMapSeat> seats) {
+}
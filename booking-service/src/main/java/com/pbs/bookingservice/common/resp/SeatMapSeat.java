@@ -0,0 +1,4 @@
+package com.pbs.bookingservice.common.resp;
+
+public record SeatMapSeat(int ordinal, String seatNumber, double price, SeatMapStatus status) {
+}
@@ -0,0 +1,5 @@
+package com.pbs.bookingservice.common.resp;
+
+public enum SeatMapStatus {
+    AVAILABLE, LOCKED, BOOKED
+}
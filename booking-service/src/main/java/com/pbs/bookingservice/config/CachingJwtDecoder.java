@@ -0,0 +1,72 @@
+package com.pbs.bookingservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Remembers tokens the delegate has verified, keyed by their SHA-256 and only until they expire,
+ * so a client repeating its bearer token costs a hash and a lookup instead of a signature check.
+ * Tokens without {@code exp} and tokens that fail verification are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> verified;
+
+    /**
+     * @param maxTtl how long a token is trusted without being verified again, whatever its exp says
+     */
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration maxTtl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.<String, Jwt>writing((key, jwt) -> untilExpiry(jwt, maxTtl)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = sha256(token);
+        Jwt jwt = verified.getIfPresent(key);
+        if (jwt != null) {
+            return jwt;
+        }
+        jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            verified.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private static Duration untilExpiry(Jwt jwt, Duration maxTtl) {
+        Duration untilExpiry = Duration.between(Instant.now(), jwt.getExpiresAt());
+        if (untilExpiry.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
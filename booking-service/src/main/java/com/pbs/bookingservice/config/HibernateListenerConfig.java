@@ -0,0 +1,32 @@
+package com.pbs.bookingservice.config;
+
+import com.pbs.bookingservice.service.ShowCacheInvalidator;
+import com.pbs.bookingservice.service.ShowCacheService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the Hibernate event listeners that keep caches in step with committed entity writes.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class HibernateListenerConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ShowCacheService showCacheService;
+
+    @PostConstruct
+    void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getEventListenerRegistry();
+        ShowCacheInvalidator showCacheInvalidator = new ShowCacheInvalidator(showCacheService);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, showCacheInvalidator);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, showCacheInvalidator);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, showCacheInvalidator);
+    }
+}
@@ -0,0 +1,23 @@
+package com.pbs.bookingservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class ReactiveConfig {
+
+    /**
+     * Bridge for the blocking JPA work of the reactive booking API. One thread per pooled
+     * connection, so callers wait in this bounded queue rather than inside Hikari, and a full
+     * queue rejects the request instead of piling up more.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jdbcScheduler(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${booking.reactive.jdbc-queue-size:1000}") int queueSize) {
+        return Schedulers.newBoundedElastic(poolSize, queueSize, "booking-jdbc");
+    }
+}
@@ -1,26 +1,63 @@
 package com.pbs.bookingservice.config;
 
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true)
 @EnableWebSecurity
 public class WebSecurityConfig {
-    
+
+    /**
+     * The booking and show APIs only take bearer tokens: no session is created or read, and a
+     * token is verified locally against the cached JWKS.
+     */
+    @Bean
+    @Order(1)
+    SecurityFilterChain apiSecurityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder) throws Exception {
+        http
+                .securityMatcher("/api/v1/booking/**", "/api/v1/shows/**", "/api/v2/**")
+                .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+                .sessionManagement(session ->
+                        session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                )
+                .requestCache(AbstractHttpConfigurer::disable)
+                .csrf(AbstractHttpConfigurer::disable)
+                .oauth2ResourceServer((oauth2) -> oauth2.jwt(jwt -> jwt.decoder(jwtDecoder)))
+                .headers(Customizer.withDefaults());
+        return http.build();
+    }
+
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain securityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/login**", "/oauth2/**").permitAll()
                         .requestMatchers("/error**").permitAll()
+                        // its write operations change admission limits for every show
+                        .requestMatchers("/actuator/admission/**").hasAuthority("SCOPE_admin")
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/swagger-ui/**",
@@ -33,10 +70,39 @@ public class WebSecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .oauth2Login(httpSecurityOAuth2LoginConfigurer ->
                         httpSecurityOAuth2LoginConfigurer.defaultSuccessUrl("/swagger-ui.html", true))
-                .oauth2ResourceServer((oauth2) -> oauth2.jwt(Customizer.withDefaults()))
+                .oauth2ResourceServer((oauth2) -> oauth2.jwt(jwt -> jwt.decoder(jwtDecoder)))
                 .headers(Customizer.withDefaults());
         return http.build();
     }
 
-
-}
\ No newline at end of file
+    /**
+     * Verifies tokens against the auth-service JWKS without contacting it at startup. The key set
+     * is fetched on first use, refreshed in the background before it goes stale so a rotated key
+     * is known before tokens signed with it arrive, and kept serving through an auth-service
+     * outage of up to {@code outage-tolerance}.
+     */
+    @Bean
+    JwtDecoder jwtDecoder(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuer,
+            @Value("${booking.security.jwt.algorithms:RS256,ES256}") List<String> algorithms,
+            @Value("${booking.security.jwks.cache-ttl:PT15M}") Duration cacheTtl,
+            @Value("${booking.security.jwks.refresh-ahead:PT1M}") Duration refreshAhead,
+            @Value("${booking.security.jwks.refresh-timeout:PT5S}") Duration refreshTimeout,
+            @Value("${booking.security.jwks.outage-tolerance:PT6H}") Duration outageTolerance,
+            @Value("${booking.security.jwt.verified-cache.maximum-size:100000}") long verifiedCacheSize,
+            @Value("${booking.security.jwt.verified-cache.max-ttl:PT1H}") Duration verifiedCacheMaxTtl,
+            MeterRegistry meterRegistry) throws MalformedURLException {
+        JWKSource<SecurityContext> jwkSource = JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL())
+                .cache(cacheTtl.toMillis(), refreshTimeout.toMillis())
+                .refreshAheadCache(refreshAhead.toMillis(), true)
+                .retrying(true)
+                .outageTolerant(outageTolerance.toMillis())
+                .build();
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withJwkSource(jwkSource)
+                .jwsAlgorithms(supported -> algorithms.forEach(algorithm -> supported.add(SignatureAlgorithm.from(algorithm))))
+                .build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        return new CachingJwtDecoder(decoder, verifiedCacheSize, verifiedCacheMaxTtl, meterRegistry);
+    }
+}
@@ -0,0 +1,66 @@
+package com.pbs.bookingservice.controller;
+
+import com.pbs.bookingservice.service.ShowAdmissionService;
+import com.pbs.bookingservice.service.ShowAdmissionService.Limits;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * {@code /actuator/admission}: the admission limits and per-show load of
+ * {@link ShowAdmissionService}. POST changes the limits in place, leaving out what stays the same;
+ * POST to {@code /actuator/admission/{showId}} sets one show's concurrency limit.
+ */
+@Component
+@Endpoint(id = "admission")
+@RequiredArgsConstructor
+public class AdmissionEndpoint {
+
+    private final ShowAdmissionService showAdmissionService;
+
+    @ReadOperation
+    public Map<String, Object> admission() {
+        return Map.of(
+                "limits", showAdmissionService.getLimits(),
+                "showLimits", showAdmissionService.getShowLimits(),
+                "running", showAdmissionService.getRunning(),
+                "shows", showAdmissionService.getShows());
+    }
+
+    @WriteOperation
+    public Limits updateLimits(@Nullable Integer maxConcurrent,
+                               @Nullable Integer maxConcurrentPerShow,
+                               @Nullable Integer reservedForQuietShows,
+                               @Nullable Integer maxQueuePerShow,
+                               @Nullable Duration maxWait,
+                               @Nullable Duration retryAfter,
+                               @Nullable Duration ticketTtl) {
+        Limits current = showAdmissionService.getLimits();
+        Limits updated = new Limits(
+                maxConcurrent != null ? maxConcurrent : current.maxConcurrent(),
+                maxConcurrentPerShow != null ? maxConcurrentPerShow : current.maxConcurrentPerShow(),
+                reservedForQuietShows != null ? reservedForQuietShows : current.reservedForQuietShows(),
+                maxQueuePerShow != null ? maxQueuePerShow : current.maxQueuePerShow(),
+                maxWait != null ? maxWait : current.maxWait(),
+                retryAfter != null ? retryAfter : current.retryAfter(),
+                ticketTtl != null ? ticketTtl : current.ticketTtl());
+        showAdmissionService.setLimits(updated);
+        return updated;
+    }
+
+    /**
+     * @param maxConcurrent leave out to go back to the default per-show limit
+     */
+    @WriteOperation
+    public Map<Long, Integer> updateShowLimit(@Selector Long showId, @Nullable Integer maxConcurrent) {
+        showAdmissionService.setShowLimit(showId, maxConcurrent);
+        return showAdmissionService.getShowLimits();
+    }
+}
@@ -1,21 +1,27 @@
 package com.pbs.bookingservice.controller;
 
 import com.pbs.bookingservice.common.req.BookingRequest;
+import com.pbs.bookingservice.common.resp.BookingHistoryPage;
 import com.pbs.bookingservice.common.resp.BookingResponse;
+import com.pbs.bookingservice.service.BookingHistoryService;
 import com.pbs.bookingservice.service.BookingService;
+import com.pbs.bookingservice.service.ShowAdmissionService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 @RestController
@@ -26,6 +32,7 @@ import org.springframework.web.bind.annotation.*;
 public class BookingController {
     
     private final BookingService bookingService;
+    private final BookingHistoryService bookingHistoryService;
 
     @Operation(
             summary = "Create a new booking",
@@ -35,16 +42,22 @@ public class BookingController {
             @ApiResponse(responseCode = "201", description = "Booking created successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid booking request"),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing authentication"),
+            @ApiResponse(responseCode = "409", description = "Idempotency-Key in use by another request"),
+            @ApiResponse(responseCode = "429", description = "Show busy - retry after Retry-After with the X-Queue-Ticket"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<BookingResponse> createBooking(
             @Valid @RequestBody BookingRequest request,
+            @Parameter(description = "Repeating a request with the same key returns the first booking")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Parameter(description = "Ticket of an earlier 429 response, to keep the place in the show's waiting room")
+            @RequestHeader(value = ShowAdmissionService.QUEUE_TICKET_HEADER, required = false) String queueTicket,
             @AuthenticationPrincipal Authentication user) {
         request.setUserId(1L); // dummy user id for testing
         return ResponseEntity
                 .status(HttpStatus.CREATED)
-                .body(bookingService.initiateBooking(request));
+                .body(bookingService.initiateBooking(request, idempotencyKey, queueTicket));
     }
 
     @Operation(
@@ -65,6 +78,24 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getBookingById(bookingId, 1L)); // dummy user id for testing
     }
 
+    @Operation(
+            summary = "Get booking details by reference",
+            description = "Retrieves booking details by booking reference for the authenticated user, served from the booking cache when possible"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Booking retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing authentication"),
+            @ApiResponse(responseCode = "404", description = "Booking not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/reference/{bookingReference}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookingResponse> getBookingByReference(
+            @PathVariable String bookingReference,
+            @AuthenticationPrincipal Authentication user) {
+
+        return ResponseEntity.ok(bookingService.getBookingByReference(bookingReference, 1L)); // dummy user id for testing
+    }
+
     @Operation(
             summary = "Confirm booking",
             description = "Confirms an existing booking by booking ID for the authenticated user"
@@ -83,9 +114,47 @@ public class BookingController {
         return ResponseEntity.ok().build();
     }
 
+    @Operation(
+            summary = "Get booking history",
+            description = "Retrieves one page of the authenticated user's bookings with their seats, newest first"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bookings retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing authentication"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/history", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookingHistoryPage> getBookingHistory(
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal Authentication user) {
+        return ResponseEntity.ok(bookingHistoryService.getHistory(1L, cursor, size)); // dummy user id for testing
+    }
+
+    @Operation(
+            summary = "Export booking history",
+            description = "Streams all of the authenticated user's bookings with their seats as a JSON array, newest first"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export started"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing authentication")
+    })
+    @GetMapping(value = "/history/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookingHistory(
+            @AuthenticationPrincipal Authentication user) {
+        Long userId = 1L; // dummy user id for testing
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings.json\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> bookingHistoryService.exportHistory(userId, out));
+    }
+
     @Operation(
             summary = "Get all bookings for user",
-            description = "Retrieves all bookings for the authenticated user"
+            description = "Retrieves all bookings for the authenticated user. Use /history or /history/export instead",
+            deprecated = true
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Bookings retrieved successfully"),
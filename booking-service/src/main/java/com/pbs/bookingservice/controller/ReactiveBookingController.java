@@ -0,0 +1,77 @@
+package com.pbs.bookingservice.controller;
+
+import com.pbs.bookingservice.common.req.BookingRequest;
+import com.pbs.bookingservice.common.resp.BookingResponse;
+import com.pbs.bookingservice.service.ReactiveBookingService;
+import com.pbs.bookingservice.service.ShowAdmissionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+
+@RestController
+@RequestMapping("/api/v2/booking")
+@SecurityRequirement(name = "bearer-jwt")
+@RequiredArgsConstructor
+@Tag(name = "Reactive Booking API", description = "Non-blocking variant of the booking API")
+public class ReactiveBookingController {
+
+    private final ReactiveBookingService reactiveBookingService;
+
+    @Operation(
+            summary = "Create a new booking",
+            description = "Initiates a new booking without holding a request thread while waiting on Redis or the database"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Booking created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid booking request"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing authentication"),
+            @ApiResponse(responseCode = "409", description = "Idempotency-Key in use by another request"),
+            @ApiResponse(responseCode = "429", description = "Show busy - retry after Retry-After with the X-Queue-Ticket"),
+            @ApiResponse(responseCode = "503", description = "Too many booking requests in progress"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<BookingResponse>> createBooking(
+            @Valid @RequestBody BookingRequest request,
+            @Parameter(description = "Repeating a request with the same key returns the first booking")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Parameter(description = "Ticket of an earlier 429 response, to keep the place in the show's waiting room")
+            @RequestHeader(value = ShowAdmissionService.QUEUE_TICKET_HEADER, required = false) String queueTicket,
+            @AuthenticationPrincipal Authentication user) {
+        request.setUserId(1L); // dummy user id for testing
+        return reactiveBookingService.initiateBooking(request, idempotencyKey, queueTicket)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @Operation(
+            summary = "Confirm booking",
+            description = "Confirms an existing booking by booking ID for the authenticated user"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Booking confirmed successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing authentication"),
+            @ApiResponse(responseCode = "404", description = "Booking not found"),
+            @ApiResponse(responseCode = "503", description = "Too many booking requests in progress"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PutMapping(value = "/{bookingId}/confirm", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Void>> confirmBooking(
+            @PathVariable Long bookingId,
+            @AuthenticationPrincipal Authentication user) {
+        return reactiveBookingService.confirmBooking(bookingId)
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+    }
+}
@@ -0,0 +1,111 @@
+package com.pbs.bookingservice.controller;
+
+import com.pbs.bookingservice.service.SeatMapService;
+import com.pbs.bookingservice.service.SeatMapSnapshot;
+import com.pbs.bookingservice.service.SeatMapStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/shows")
+@SecurityRequirement(name = "bearer-jwt")
+@RequiredArgsConstructor
+@Tag(name = "Show API", description = "API for show seat maps")
+public class ShowController {
+
+    private final SeatMapService seatMapService;
+    private final SeatMapStreamService seatMapStreamService;
+
+    @Operation(
+            summary = "Get seat map",
+            description = "Returns the seat layout and current seat status of a show. Supports If-None-Match"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Seat map retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Seat map not modified"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing authentication"),
+            @ApiResponse(responseCode = "404", description = "Show not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping(value = "/{showId}/seats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getSeatMap(
+            @PathVariable Long showId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SeatMapSnapshot snapshot = seatMapService.getSnapshot(showId);
+        if (ifNoneMatch != null && noneMatchFails(ifNoneMatch, snapshot.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.eTag())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.eTag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body());
+    }
+
+    /**
+     * RFC 9110 If-None-Match for a GET: true when the header is {@code *} or lists a tag that
+     * weakly matches {@code eTag}, i.e. the opaque parts are equal with any {@code W/} ignored.
+     * Several header lines arrive joined by commas. A malformed list matches nothing after the
+     * point where it stops parsing.
+     */
+    private static boolean noneMatchFails(String ifNoneMatch, String eTag) {
+        String header = ifNoneMatch.trim();
+        if ("*".equals(header)) {
+            return true;
+        }
+        String opaque = opaqueTag(eTag);
+        int i = 0;
+        while (i < header.length()) {
+            char c = header.charAt(i);
+            if (c == ',' || c == ' ' || c == '\t') {
+                i++;
+                continue;
+            }
+            if (header.startsWith("W/", i)) {
+                i += 2;
+            }
+            if (i >= header.length() || header.charAt(i) != '"') {
+                return false;
+            }
+            int end = header.indexOf('"', i + 1);
+            if (end < 0) {
+                return false;
+            }
+            if (header.substring(i, end + 1).equals(opaque)) {
+                return true;
+            }
+            i = end + 1;
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    @Operation(
+            summary = "Stream seat map changes",
+            description = "Server-Sent Events stream: one 'snapshot' event with the full seat map, then 'delta' "
+                    + "events with the seats whose status changed"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid or missing authentication"),
+            @ApiResponse(responseCode = "404", description = "Show not found")
+    })
+    @GetMapping(value = "/{showId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatMap(@PathVariable Long showId) {
+        return seatMapStreamService.subscribe(showId);
+    }
+}
@@ -19,8 +19,12 @@ import java.util.List;
 @EqualsAndHashCode
 public class Booking implements Serializable {
 
+    // ids come from sequences 50 at a time (pooled-lo), so a booking's and its seats' ids are known
+    // before the flush and the seats go to the database in one JDBC batch; the outbox event is saved
+    // afterwards in its own transaction and flush
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "BOOKING_REFERENCE", unique = true, nullable = false)
@@ -1,7 +1,6 @@
 package com.pbs.bookingservice.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
-import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.pbs.bookingservice.entity.enums.BookingSeatStatus;
 import jakarta.persistence.*;
 import lombok.*;
@@ -18,13 +17,13 @@ import java.io.Serializable;
 @EqualsAndHashCode
 public class BookingSeat implements Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seat_seq")
+    @SequenceGenerator(name = "booking_seat_seq", sequenceName = "booking_seat_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "BOOKING_ID")
     @JsonBackReference
-    @JsonIgnore
     private Booking booking;
     private Long seatInventoryId;
     private String seatNumber;
@@ -16,7 +16,8 @@ import java.io.Serializable;
 @EqualsAndHashCode
 public class SeatInventory implements Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seat_inventory_seq")
+    @SequenceGenerator(name = "seat_inventory_seq", sequenceName = "seat_inventory_seq", allocationSize = 50)
     private Long id;
 
     private Double price;
@@ -24,8 +25,10 @@ public class SeatInventory implements Serializable {
     private SeatStatus seatStatus;
     private String seatNumber;
 
-    @ManyToOne
+    // show metadata comes from ShowCacheService; loading it with every seat row is not needed
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "SHOW_ID")
+    @EqualsAndHashCode.Exclude
     private Show show;
 
 
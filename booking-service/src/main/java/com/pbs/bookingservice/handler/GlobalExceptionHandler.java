@@ -1,12 +1,17 @@
 package com.pbs.bookingservice.handler;
 
 import com.pbs.bookingservice.common.ex.*;
+import com.pbs.bookingservice.service.ShowAdmissionService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
@@ -42,6 +47,14 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         );
     }
 
+    @ExceptionHandler(ShowNotFoundException.class)
+    public ProblemDetail showNotFound(ShowNotFoundException e) {
+        return ProblemDetail.forStatusAndDetail(
+                HttpStatus.NOT_FOUND,
+                e.getMessage()
+        );
+    }
+
     @ExceptionHandler(SeatUnavailableException.class)
     public ProblemDetail handleSeatUnavailableException(SeatUnavailableException e) {
         return ProblemDetail.forStatusAndDetail(
@@ -50,6 +63,38 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         );
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ProblemDetail handleIdempotencyConflict(IdempotencyConflictException e) {
+        return ProblemDetail.forStatusAndDetail(
+                HttpStatus.CONFLICT,
+                e.getMessage()
+        );
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ProblemDetail> handleAdmissionRejected(AdmissionRejectedException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                HttpStatus.TOO_MANY_REQUESTS,
+                e.getMessage()
+        );
+        problem.setProperty("ticket", e.getTicket());
+        problem.setProperty("position", e.getPosition());
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())));
+        if (e.getTicket() != null) {
+            response.header(ShowAdmissionService.QUEUE_TICKET_HEADER, e.getTicket());
+        }
+        return response.body(problem);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ProblemDetail handleRejectedExecution(RejectedExecutionException e) {
+        return ProblemDetail.forStatusAndDetail(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many booking requests in progress, please retry"
+        );
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ProblemDetail handleRuntimeException(RuntimeException e) {
         return
@@ -0,0 +1,17 @@
+package com.pbs.bookingservice.repository;
+
+import com.pbs.bookingservice.entity.enums.BookingSeatStatus;
+import com.pbs.bookingservice.entity.enums.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One booking seat joined with its booking; the seat columns are null for a booking without seats.
+ */
+public record BookingHistoryRow(Long bookingId, String bookingReference, Long showId, BookingStatus status,
+                                BigDecimal baseAmount, BigDecimal discountAmount, BigDecimal finalAmount,
+                                LocalDateTime bookingTime, LocalDateTime expiryTime,
+                                Long bookingSeatId, Long seatInventoryId, String seatNumber, Double pricePaid,
+                                BookingSeatStatus seatStatus) {
+}
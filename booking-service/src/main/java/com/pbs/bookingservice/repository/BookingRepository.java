@@ -1,18 +1,55 @@
 package com.pbs.bookingservice.repository;
 
 import com.pbs.bookingservice.entity.Booking;
+import com.pbs.bookingservice.entity.enums.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query("SELECT b FROM Booking b WHERE b.expiryTime <= :now")
-    List<Booking> findExpiredBookings(LocalDateTime now);
+    String HISTORY_ROWS = "SELECT new com.pbs.bookingservice.repository.BookingHistoryRow("
+            + "b.id, b.bookingReference, b.showId, b.status, b.baseAmount, b.discountAmount, b.finalAmount, "
+            + "b.bookingTime, b.expiryTime, s.id, s.seatInventoryId, s.seatNumber, s.pricePaid, s.status) "
+            + "FROM Booking b LEFT JOIN b.bookingSeats s ";
+    String HISTORY_ORDER = "ORDER BY b.bookingTime DESC, b.id DESC, s.id";
+
+    /**
+     * Claims a batch of overdue pending bookings. Rows claimed by another transaction are
+     * skipped, so several sweepers (threads or nodes) can drain the backlog side by side.
+     */
+    @Query(value = "SELECT b.id FROM booking b WHERE b.status = 'PENDING_PAYMENT' AND b.expiry_time <= :now "
+            + "ORDER BY b.expiry_time LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> claimExpiredBookingIds(LocalDateTime now, int limit);
+
+    @Query(value = "SELECT b.id FROM booking b WHERE b.id IN (:bookingIds) AND b.status = 'PENDING_PAYMENT' "
+            + "AND b.expiry_time <= :now ORDER BY b.id FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> claimExpiredBookingIdsIn(List<Long> bookingIds, LocalDateTime now);
+
+    @Query("SELECT b.id, b.expiryTime FROM Booking b WHERE b.status = 'PENDING_PAYMENT'")
+    List<Object[]> findPendingExpiryTimes();
+
+    @Query("SELECT b.id FROM Booking b WHERE b.bookingReference = :bookingReference")
+    Optional<Long> findIdByBookingReference(String bookingReference);
+
+    @Query("SELECT b FROM Booking b LEFT JOIN FETCH b.bookingSeats WHERE b.bookingReference = :bookingReference")
+    Optional<Booking> findWithSeatsByBookingReference(String bookingReference);
+
+    @Query("SELECT DISTINCT b FROM Booking b LEFT JOIN FETCH b.bookingSeats WHERE b.id IN :bookingIds")
+    List<Booking> findAllWithSeatsByIdIn(List<Long> bookingIds);
+
+    @Query("SELECT COUNT(b), MIN(b.expiryTime) FROM Booking b WHERE b.status = 'PENDING_PAYMENT' AND b.expiryTime <= :now")
+    List<Object[]> findExpiryBacklog(LocalDateTime now);
 
 
     @Query("SELECT b FROM Booking b WHERE b.id = :bookingId AND b.userId = :userId")
@@ -20,4 +57,34 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     @Query("SELECT b FROM Booking b WHERE b.userId = :userId")
     List<Booking> findByUserId(long userId);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.userId = :userId ORDER BY b.bookingTime DESC, b.id DESC")
+    List<Long> findHistoryIds(Long userId, Limit limit);
+
+    /**
+     * The page of the user's bookings after the given (bookingTime, id) position, newest first.
+     */
+    @Query("SELECT b.id FROM Booking b WHERE b.userId = :userId "
+            + "AND (b.bookingTime < :bookingTime OR (b.bookingTime = :bookingTime AND b.id < :bookingId)) "
+            + "ORDER BY b.bookingTime DESC, b.id DESC")
+    List<Long> findHistoryIdsAfter(Long userId, LocalDateTime bookingTime, Long bookingId, Limit limit);
+
+    @Query(HISTORY_ROWS + "WHERE b.id IN :bookingIds " + HISTORY_ORDER)
+    List<BookingHistoryRow> findHistoryRowsByIdIn(List<Long> bookingIds);
+
+    /**
+     * All of the user's bookings as history rows, read through a database cursor; must be
+     * consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(HISTORY_ROWS + "WHERE b.userId = :userId " + HISTORY_ORDER)
+    Stream<BookingHistoryRow> streamHistoryRows(Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :toStatus WHERE b.id = :bookingId AND b.status = :fromStatus")
+    int updateStatus(Long bookingId, BookingStatus fromStatus, BookingStatus toStatus);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :toStatus WHERE b.id IN :bookingIds AND b.status = :fromStatus")
+    int updateStatusIn(List<Long> bookingIds, BookingStatus fromStatus, BookingStatus toStatus);
 }
@@ -1,10 +1,14 @@
 package com.pbs.bookingservice.repository;
 
 import com.pbs.bookingservice.entity.BookingSeat;
+import com.pbs.bookingservice.entity.enums.BookingSeatStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface BookingSeatRepository extends JpaRepository<BookingSeat, Long> {
     @Query("SELECT bs FROM BookingSeat bs WHERE bs.booking.id = :bookingId")
@@ -12,4 +16,12 @@ public interface BookingSeatRepository extends JpaRepository<BookingSeat, Long>
 
     @Query("SELECT bs FROM BookingSeat bs WHERE bs.booking.id = :bookingId")
     BookingSeat findByBookingId(Long bookingId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BookingSeat bs SET bs.status = :status WHERE bs.booking.id = :bookingId")
+    int updateStatusByBookingId(Long bookingId, BookingSeatStatus status);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BookingSeat bs SET bs.status = :status WHERE bs.booking.id IN :bookingIds")
+    int updateStatusByBookingIdIn(List<Long> bookingIds, BookingSeatStatus status);
 }
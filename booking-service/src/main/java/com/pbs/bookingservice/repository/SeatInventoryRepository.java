@@ -1,7 +1,9 @@
 package com.pbs.bookingservice.repository;
 
 import com.pbs.bookingservice.entity.SeatInventory;
+import com.pbs.bookingservice.entity.enums.SeatStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +14,29 @@ public interface SeatInventoryRepository extends JpaRepository<SeatInventory, Lo
     @Query("SELECT s FROM SeatInventory s WHERE s.show.id = :showId AND s.seatNumber IN :seatNumbers")
     public List<SeatInventory> findByShowIdAndSeatNumberIn(Long showId, List<String> seatNumbers);
 
+    @Query("SELECT s FROM SeatInventory s WHERE s.show.id = :showId ORDER BY s.id")
+    List<SeatInventory> findByShowId(Long showId);
+
+    @Query("SELECT s.id FROM SeatInventory s WHERE s.show.id = :showId AND s.seatStatus <> :status")
+    List<Long> findSeatIdsByShowIdAndSeatStatusNot(Long showId, SeatStatus status);
+
+    @Query("SELECT s.seatNumber FROM SeatInventory s WHERE s.id IN :seatIds AND s.seatStatus <> :status")
+    List<String> findSeatNumbersByIdInAndSeatStatusNot(List<Long> seatIds, SeatStatus status);
+
     @Query("SELECT s FROM SeatInventory s WHERE s.id IN :list")
     List<SeatInventory> findAllById(List<Long> list);
+
+    /**
+     * Moves the seats still in {@code fromStatus} to {@code toStatus}, locking their rows in id
+     * order first. A plain {@code UPDATE ... IN} locks rows in whatever order the plan visits them,
+     * so two transactions claiming overlapping seats could each wait for the other.
+     *
+     * @return the number of seats moved; short when some were not in {@code fromStatus}
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "WITH claimed AS (SELECT id FROM seat_inventory WHERE id IN (:seatIds) "
+            + "AND seat_status = :#{#fromStatus.name()} ORDER BY id FOR UPDATE) "
+            + "UPDATE seat_inventory s SET seat_status = :#{#toStatus.name()} FROM claimed WHERE s.id = claimed.id",
+            nativeQuery = true)
+    int claimSeats(List<Long> seatIds, SeatStatus fromStatus, SeatStatus toStatus);
 }
@@ -2,6 +2,7 @@ package com.pbs.bookingservice.repository;
 
 import com.pbs.bookingservice.entity.Show;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -18,5 +19,8 @@ public interface ShowRepository extends JpaRepository<Show, Long> {
     @Query("SELECT s FROM Show s WHERE s.movieId = :movieId AND s.theatreId = :theatreId")
     Show findByMovieIdAndTheatreId(String movieId, Long theatreId);
 
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Show s SET s.availableSeats = s.availableSeats - :count WHERE s.id = :showId AND s.availableSeats >= :count")
+    int decrementAvailableSeats(Long showId, int count);
 
 }
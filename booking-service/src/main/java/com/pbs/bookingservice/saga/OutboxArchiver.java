@@ -0,0 +1,68 @@
+package com.pbs.bookingservice.saga;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Keeps {@code outbox_events} small. Published events are moved to {@code outbox_events_archive}
+ * once they are older than the archive delay, and archived events are deleted after the
+ * retention period. Both steps run in bounded batches, each in its own transaction.
+ */
+@Service
+@ConditionalOnProperty(name = "booking.outbox.archive.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxArchiver {
+
+    private static final long ARCHIVE_INTERVAL_MS = 300000;
+
+    @Value("${booking.outbox.archive.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${booking.outbox.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Value("${booking.outbox.archive.archive-after:PT1H}")
+    private Duration archiveAfter;
+
+    @Value("${booking.outbox.archive.retention:P30D}")
+    private Duration retention;
+
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelay = ARCHIVE_INTERVAL_MS, initialDelay = ARCHIVE_INTERVAL_MS)
+    public void archiveAndPurge() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime archiveCutoff = now.minus(archiveAfter);
+        LocalDateTime purgeCutoff = now.minus(retention);
+
+        int archived = runBatches(() -> outboxRepository.archivePublishedEvents(archiveCutoff, batchSize));
+        int purged = runBatches(() -> outboxRepository.purgeArchivedEvents(purgeCutoff, batchSize));
+        if (archived > 0 || purged > 0) {
+            log.info("Archived {} published outbox events, purged {} archived events", archived, purged);
+        }
+    }
+
+    private int runBatches(IntSupplier batch) {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer count = transactionTemplate.execute(status -> batch.getAsInt());
+            int moved = count != null ? count : 0;
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class OutboxEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
     private Long eventId;
 
     private String aggregateType;   // BOOKING
@@ -30,6 +31,9 @@ public class OutboxEvent {
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime processedAt = LocalDateTime.now();
 
+    // a relay holding the event is publishing it until then; another relay may take over after
+    private LocalDateTime claimedUntil;
+
     @PreUpdate
     protected void onUpdate() {
         processedAt = LocalDateTime.now();
@@ -0,0 +1,91 @@
+package com.pbs.bookingservice.saga;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+/**
+ * Holds a dedicated {@code LISTEN} connection on the outbox channel and wakes the
+ * {@link OutboxPublisher} relays as soon as a booking transaction commits. The connection is
+ * opened outside the Hikari pool so it never takes a slot from request handling; if it drops,
+ * the relays keep polling until it is re-established.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.outbox.notify.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxNotificationListener {
+
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    @Value("${booking.outbox.notify.listen-timeout-ms:10000}")
+    private int listenTimeoutMs;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final OutboxPublisher outboxPublisher;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        listener = Thread.ofPlatform()
+                .name("outbox-listener")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + OutboxNotifier.CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for outbox notifications on channel: {}", OutboxNotifier.CHANNEL);
+                // catch up on anything committed while the connection was down
+                outboxPublisher.wakeUp();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(listenTimeoutMs);
+                    if (notifications != null && notifications.length > 0) {
+                        outboxPublisher.wakeUp();
+                    }
+                }
+            } catch (Exception ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Outbox notification connection lost, reconnecting in {} ms. Error: {}",
+                        RECONNECT_DELAY_MS, ex.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
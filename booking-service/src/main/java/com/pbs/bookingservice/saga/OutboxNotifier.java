@@ -0,0 +1,69 @@
+package com.pbs.bookingservice.saga;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Wakes the outbox relays when a transaction that wrote outbox events commits. This node's relays
+ * are woken in-process after the commit. Other nodes get a Postgres {@code NOTIFY} on the outbox
+ * channel, issued once per transaction as part of the commit: Postgres only delivers it if the
+ * commit succeeds, so listeners never see events that were rolled back. An outbox write outside
+ * a transaction is already committed; it wakes the local relays only, without a round trip.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxNotifier {
+
+    public static final String CHANNEL = "outbox_events";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxPublisher outboxPublisher;
+
+    @Value("${booking.outbox.notify.enabled:true}")
+    private boolean enabled;
+
+    public void notifyOnCommit() {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxPublisher.wakeUp();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                sendNotify();
+            }
+
+            @Override
+            public void afterCommit() {
+                outboxPublisher.wakeUp();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OutboxNotifier.this);
+            }
+        });
+    }
+
+    private void sendNotify() {
+        try {
+            jdbcTemplate.execute("SELECT pg_notify('" + CHANNEL + "', '')");
+        } catch (Exception ex) {
+            // the relay's polling picks the events up anyway
+            log.warn("Failed to notify outbox relay. Error: {}", ex.getMessage());
+        }
+    }
+}
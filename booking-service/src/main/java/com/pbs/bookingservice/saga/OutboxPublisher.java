@@ -1,25 +1,49 @@
 package com.pbs.bookingservice.saga;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Relays pending outbox events to Kafka. Each relay thread claims a batch in a short transaction
+ * ({@code FOR UPDATE SKIP LOCKED}, then a {@code claim-lease-ms} lease on the rows), sends the
+ * whole batch without waiting in between and waits for the broker acks holding no connection,
+ * then marks the acknowledged events in a second short transaction and gives the rest back for
+ * retry. A relay that dies mid-batch leaves its claim to expire. Only one event per aggregate is
+ * in flight at a time, so a booking's events reach Kafka in the order they were written. Batch
+ * size grows while batches come back full and shrinks when they don't; the idle poll interval
+ * backs off while the outbox is empty and resets as soon as events show up.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OutboxPublisher {
 
+    private static final long BACKLOG_SAMPLE_INTERVAL_MS = 15000;
 
-    private static final int BATCH_SIZE = 50;
-    private static final int PAGE_NUMBER = 0;
     private static final String STATUS_SENT = "SENT";
     private static final String STATUS_FAILED = "FAILED";
 
@@ -37,51 +61,234 @@ public class OutboxPublisher {
             EVENT_TYPE_BOOKING_EXPIRED, TOPIC_BOOKING_EXPIRED
     );
 
+    @Value("${booking.outbox.relay-threads:2}")
+    private int relayThreads;
+
+    @Value("${booking.outbox.min-batch-size:50}")
+    private int minBatchSize;
+
+    @Value("${booking.outbox.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${booking.outbox.min-poll-interval-ms:50}")
+    private long minPollIntervalMs;
+
+    @Value("${booking.outbox.max-poll-interval-ms:5000}")
+    private long maxPollIntervalMs;
+
+    @Value("${booking.outbox.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    // longer than send-timeout-ms, or a slow batch is claimed and sent again by another relay
+    @Value("${booking.outbox.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     private final OutboxRepository outboxRepository;
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
 
-    @Scheduled(fixedDelay = 5000)
-    @Transactional
-    public void publishOutboxEvents() {
-        List<OutboxEvent> events = outboxRepository.findPendingEvents(
-                PageRequest.of(PAGE_NUMBER, BATCH_SIZE)
-        );
+    private final ReentrantLock wakeUpLock = new ReentrantLock();
+    private final Condition wakeUpCondition = wakeUpLock.newCondition();
+    // a wake-up that came while every relay was busy publishing; the next wait returns at once
+    private boolean wakeUpPending;
+    private final List<Thread> relays = new ArrayList<>();
+    private volatile boolean running;
 
-        if (events.isEmpty()) {
-            return;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+    private Timer sendTimer;
+    private Timer publishLagTimer;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("outbox.backlog", backlog, AtomicLong::get)
+                .description("Pending outbox events at the last sample")
+                .register(meterRegistry);
+        Gauge.builder("outbox.oldest.pending.age", oldestPendingAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest pending outbox event at the last sample")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        sendTimer = Timer.builder("outbox.kafka.send")
+                .description("Kafka send latency, from send to broker ack")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        publishLagTimer = Timer.builder("outbox.publish.lag")
+                .description("Time from writing an outbox event to its broker ack")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        for (int i = 0; i < relayThreads; i++) {
+            Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+            relays.add(builder.name("outbox-relay-" + i).start(this::relay));
         }
+        log.info("Started {} outbox relay {} threads", relayThreads, virtualThreads ? "virtual" : "platform");
+    }
 
-        log.debug("Processing {} pending outbox events", events.size());
+    @PreDestroy
+    void stop() {
+        running = false;
+        relays.forEach(Thread::interrupt);
+    }
 
-        for (OutboxEvent event : events) {
-            processEvent(event);
+    /**
+     * Wakes idle relay threads so new events are published without waiting for the poll interval.
+     */
+    public void wakeUp() {
+        wakeUpLock.lock();
+        try {
+            wakeUpPending = true;
+            wakeUpCondition.signalAll();
+        } finally {
+            wakeUpLock.unlock();
         }
+    }
+
+    /**
+     * Claims, publishes and marks one batch of pending events.
+     *
+     * @return the number of events claimed
+     */
+    public int publishOutboxEvents(int batchSize) {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> claimed = outboxRepository.claimPendingEvents(batchSize, now);
+            if (!claimed.isEmpty()) {
+                outboxRepository.updateClaim(claimed.stream().map(OutboxEvent::getEventId).toList(),
+                        now.plus(Duration.ofMillis(claimLeaseMs)));
+            }
+            return claimed;
+        });
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+        log.debug("Processing {} pending outbox events", events.size());
+        publishBatch(events);
+        return events.size();
+    }
+
+    @Scheduled(fixedDelay = BACKLOG_SAMPLE_INTERVAL_MS)
+    public void sampleBacklog() {
+        Object[] row = outboxRepository.findPendingBacklog().getFirst();
+        LocalDateTime oldestCreatedAt = (LocalDateTime) row[1];
+        backlog.set(row[0] != null ? ((Number) row[0]).longValue() : 0L);
+        oldestPendingAgeSeconds.set(oldestCreatedAt != null
+                ? Duration.between(oldestCreatedAt, LocalDateTime.now()).toSeconds() : 0L);
+    }
 
-        outboxRepository.saveAll(events);
+    private void relay() {
+        int batchSize = minBatchSize;
+        long pollIntervalMs = minPollIntervalMs;
+        while (running) {
+            try {
+                int claimed = publishOutboxEvents(batchSize);
+                if (claimed >= batchSize) {
+                    batchSize = Math.min(batchSize * 2, maxBatchSize);
+                    pollIntervalMs = minPollIntervalMs;
+                    continue;
+                }
+                if (claimed > 0) {
+                    pollIntervalMs = minPollIntervalMs;
+                    if (claimed < batchSize / 2) {
+                        batchSize = Math.max(batchSize / 2, minBatchSize);
+                    }
+                } else {
+                    pollIntervalMs = Math.min(pollIntervalMs * 2, maxPollIntervalMs);
+                }
+                awaitWakeUp(pollIntervalMs);
+            } catch (Exception ex) {
+                if (!running) {
+                    return;
+                }
+                log.error("Outbox relay batch failed. Error: {}", ex.getMessage(), ex);
+                pollIntervalMs = maxPollIntervalMs;
+                awaitWakeUp(pollIntervalMs);
+            }
+        }
     }
 
-    private void processEvent(OutboxEvent event) {
+    private void awaitWakeUp(long timeoutMs) {
+        wakeUpLock.lock();
         try {
-            String topic = resolveTopic(event.getEventType());
-            kafkaTemplate.send(topic, event.getAggregateId(), event.getPayload());
+            if (!wakeUpPending) {
+                wakeUpCondition.await(timeoutMs, TimeUnit.MILLISECONDS);
+            }
+            wakeUpPending = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        } finally {
+            wakeUpLock.unlock();
+        }
+    }
 
-            event.setStatus(STATUS_SENT);
-            event.setProcessedAt(LocalDateTime.now());
+    private void publishBatch(List<OutboxEvent> events) {
+        List<OutboxEvent> sentEvents = new ArrayList<>(events.size());
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(events.size());
+        List<Long> failedIds = new ArrayList<>();
 
-            log.info("Successfully published event {} to topic {}", event.getEventId(), topic);
+        for (OutboxEvent event : events) {
+            String topic = EVENT_TYPE_TO_TOPIC_MAP.get(event.getEventType());
+            if (topic == null) {
+                log.error("Unknown event type: {} for event {}", event.getEventType(), event.getEventId());
+                failedIds.add(event.getEventId());
+                continue;
+            }
+            sentEvents.add(event);
+            long sendStart = System.nanoTime();
+            futures.add(kafkaTemplate.send(topic, event.getAggregateId(), event.getPayload())
+                    .whenComplete((result, ex) -> {
+                        if (ex == null) {
+                            sendTimer.record(System.nanoTime() - sendStart, TimeUnit.NANOSECONDS);
+                        }
+                    }));
+        }
+        kafkaTemplate.flush();
 
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (Exception ex) {
-            log.error("Kafka publish failed for event {} with error: {}",
-                    event.getEventId(), ex.getMessage(), ex);
-            event.setStatus(STATUS_FAILED);
+            log.warn("Not all outbox events were acknowledged within {} ms. Error: {}", sendTimeoutMs, ex.getMessage());
         }
-    }
 
-    private String resolveTopic(String eventType) {
-        String topic = EVENT_TYPE_TO_TOPIC_MAP.get(eventType);
-        if (topic == null) {
-            throw new IllegalArgumentException("Unknown event type: " + eventType);
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> publishedIds = new ArrayList<>(sentEvents.size());
+        List<Long> unackedIds = new ArrayList<>();
+        for (int i = 0; i < sentEvents.size(); i++) {
+            CompletableFuture<SendResult<String, String>> future = futures.get(i);
+            OutboxEvent event = sentEvents.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                publishedIds.add(event.getEventId());
+                if (event.getCreatedAt() != null) {
+                    publishLagTimer.record(Duration.between(event.getCreatedAt(), now));
+                }
+            } else {
+                unackedIds.add(event.getEventId());
+            }
         }
-        return topic;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!publishedIds.isEmpty()) {
+                outboxRepository.updateStatus(publishedIds, OutboxEventStatus.PROCESSED, STATUS_SENT, now);
+            }
+            if (!failedIds.isEmpty()) {
+                outboxRepository.updateStatus(failedIds, OutboxEventStatus.FAILED, STATUS_FAILED, now);
+            }
+            if (!unackedIds.isEmpty()) {
+                outboxRepository.updateClaim(unackedIds, null);
+            }
+        });
+        log.info("Published {} of {} outbox events, {} failed permanently, {} left pending for retry",
+                publishedIds.size(), events.size(), failedIds.size(), sentEvents.size() - publishedIds.size());
     }
-}
\ No newline at end of file
+}
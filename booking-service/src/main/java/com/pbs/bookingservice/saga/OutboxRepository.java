@@ -1,10 +1,11 @@
 package com.pbs.bookingservice.saga;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -12,6 +13,56 @@ public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
     @Query("SELECT o FROM OutboxEvent o WHERE o.eventId = :eventId")
     OutboxEvent findByEventId(String eventId);
 
-    @Query("SELECT o FROM OutboxEvent o WHERE o.eventStatus = 'PENDING'")
-    List<OutboxEvent> findPendingEvents(PageRequest of);
+    /**
+     * Locks the oldest pending events no relay holds a claim on, for the caller to claim with
+     * {@link #updateClaim} in the same short transaction. Rows locked by another relay are
+     * skipped, so relays on several threads and nodes take disjoint batches. Only the oldest
+     * pending event of each aggregate qualifies, so a booking's events are published one at a
+     * time and in order, retries included. Ordered by creation time: event ids come from per-node
+     * sequence blocks, so a later event written on another node can have a lower id.
+     */
+    @Query(value = "SELECT * FROM outbox_events o WHERE o.event_status = 'PENDING' "
+            + "AND (o.claimed_until IS NULL OR o.claimed_until < :now) "
+            + "AND NOT EXISTS (SELECT 1 FROM outbox_events e WHERE e.aggregate_id = o.aggregate_id "
+            + "AND e.event_status = 'PENDING' AND (e.created_at, e.event_id) < (o.created_at, o.event_id)) "
+            + "ORDER BY o.created_at, o.event_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> claimPendingEvents(int limit, LocalDateTime now);
+
+    /**
+     * Claims events for a relay until {@code claimedUntil}; null gives them back for retry.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.claimedUntil = :claimedUntil WHERE o.eventId IN :eventIds")
+    int updateClaim(List<Long> eventIds, LocalDateTime claimedUntil);
+
+    @Query("SELECT COUNT(o), MIN(o.createdAt) FROM OutboxEvent o WHERE o.eventStatus = 'PENDING'")
+    List<Object[]> findPendingBacklog();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.eventStatus = :eventStatus, o.status = :status, o.processedAt = :processedAt "
+            + "WHERE o.eventId IN :eventIds")
+    int updateStatus(List<Long> eventIds, OutboxEventStatus eventStatus, String status, LocalDateTime processedAt);
+
+    /**
+     * Moves up to {@code limit} published events processed before {@code cutoff} into
+     * {@code outbox_events_archive} in one statement.
+     *
+     * @return the number of events moved
+     */
+    @Modifying
+    @Query(value = "WITH moved AS ("
+            + "DELETE FROM outbox_events WHERE event_id IN ("
+            + "SELECT event_id FROM outbox_events WHERE event_status IN ('PROCESSED', 'COMPLETED') "
+            + "AND processed_at < :cutoff ORDER BY event_id LIMIT :limit FOR UPDATE SKIP LOCKED) "
+            + "RETURNING *) "
+            + "INSERT INTO outbox_events_archive (event_id, aggregate_id, aggregate_type, created_at, event_status, "
+            + "event_type, payload, processed_at, status) "
+            + "SELECT event_id, aggregate_id, aggregate_type, created_at, event_status, "
+            + "event_type, payload, processed_at, status FROM moved", nativeQuery = true)
+    int archivePublishedEvents(LocalDateTime cutoff, int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events_archive WHERE event_id IN ("
+            + "SELECT event_id FROM outbox_events_archive WHERE archived_at < :cutoff LIMIT :limit)", nativeQuery = true)
+    int purgeArchivedEvents(LocalDateTime cutoff, int limit);
 }
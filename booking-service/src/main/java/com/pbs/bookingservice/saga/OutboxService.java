@@ -6,6 +6,7 @@ import com.pbs.bookingservice.entity.Booking;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -24,6 +25,7 @@ public class OutboxService {
 
     private final OutboxRepository outboxRepository;
     private final ObjectMapper objectMapper;
+    private final OutboxNotifier outboxNotifier;
 
     public void saveBookingInitiatedEvent(Booking booking) {
         saveBookingEvent(booking, EVENT_TYPE_BOOKING_INITIATED);
@@ -37,9 +39,18 @@ public class OutboxService {
         saveBookingEvent(booking, EVENT_TYPE_BOOKING_EXPIRED);
     }
 
+    public void saveBookingExpiredEvents(List<Booking> bookings) {
+        List<OutboxEvent> events = bookings.stream()
+                .map(booking -> createOutboxEvent(booking, EVENT_TYPE_BOOKING_EXPIRED))
+                .toList();
+        outboxRepository.saveAll(events);
+        outboxNotifier.notifyOnCommit();
+    }
+
     private void saveBookingEvent(Booking booking, String eventType) {
         OutboxEvent event = createOutboxEvent(booking, eventType);
         outboxRepository.save(event);
+        outboxNotifier.notifyOnCommit();
     }
 
     private OutboxEvent createOutboxEvent(Booking booking, String eventType) {
@@ -0,0 +1,299 @@
+package com.pbs.bookingservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pbs.bookingservice.common.ex.BookingNotFoundException;
+import com.pbs.bookingservice.common.resp.BookingResponse;
+import com.pbs.bookingservice.entity.Booking;
+import com.pbs.bookingservice.entity.BookingSeat;
+import com.pbs.bookingservice.entity.enums.BookingSeatStatus;
+import com.pbs.bookingservice.entity.enums.BookingStatus;
+import com.pbs.bookingservice.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static com.pbs.bookingservice.service.BookingService.BOOKING_CACHE_PREFIX;
+
+/**
+ * Read-through cache of {@link BookingResponse} projections under {@code BOOKING:<reference>}.
+ * A pending booking's entry lives until its payment deadline; confirmed and closed bookings no
+ * longer change and are kept longer. Lookups only fill a missing entry, and state changes
+ * overwrite it after commit, so a lookup racing a confirmation can not put the old state back.
+ * <p>
+ * With {@code booking.expiry.keyspace-notifications} on, a pending booking also gets an empty
+ * {@code booking:expiry:<reference>} key that expires at its payment deadline and is deleted as
+ * soon as the booking leaves the pending state. Only that key triggers
+ * {@link BookingKeyExpirationListener}; the cached entries can expire without expiring anything.
+ */
+@Service
+@Slf4j
+public class BookingCacheService {
+
+    static final String EXPIRY_TRIGGER_PREFIX = "booking:expiry:";
+
+    // an overdue booking still pending is about to be expired; don't keep that state around
+    private static final Duration MIN_PENDING_TTL = Duration.ofSeconds(1);
+
+    private final BookingRepository bookingRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration confirmedTtl;
+    private final Duration closedTtl;
+    private final boolean expiryTriggers;
+    private final Counter hits;
+    private final Counter misses;
+
+    public BookingCacheService(BookingRepository bookingRepository,
+                               RedisTemplate<String, String> redisTemplate,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${booking.cache.confirmed-ttl:PT24H}") Duration confirmedTtl,
+                               @Value("${booking.cache.closed-ttl:PT1H}") Duration closedTtl,
+                               @Value("${booking.expiry.keyspace-notifications:false}") boolean expiryTriggers) {
+        this.bookingRepository = bookingRepository;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.confirmedTtl = confirmedTtl;
+        this.closedTtl = closedTtl;
+        this.expiryTriggers = expiryTriggers;
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+    }
+
+    /**
+     * Reads a booking by reference without writing to the database.
+     *
+     * @throws BookingNotFoundException when there is no such booking for the user
+     */
+    public BookingResponse getBookingByReference(String bookingReference, Long userId) {
+        BookingResponse response = read(bookingReference);
+        if (response == null) {
+            Booking booking = bookingRepository.findWithSeatsByBookingReference(bookingReference)
+                    .orElseThrow(() -> new BookingNotFoundException("Booking not found"));
+            response = new BookingResponse(booking);
+            fill(booking);
+        }
+        if (!response.booking().getUserId().equals(userId)) {
+            log.warn("Booking ref: {} requested by userId: {} belongs to another user", bookingReference, userId);
+            throw new BookingNotFoundException("Booking not found");
+        }
+        return response;
+    }
+
+    /**
+     * Caches a booking as it is now, replacing any entry for it.
+     */
+    public void put(Booking booking) {
+        try {
+            redisTemplate.opsForValue().set(key(booking), serialize(booking), ttlFor(booking));
+        } catch (Exception ex) {
+            log.warn("Failed to cache booking ref: {}. Error: {}", booking.getBookingReference(), ex.getMessage());
+            evict(List.of(booking));
+        }
+        if (expiryTriggers) {
+            try {
+                updateExpiryTrigger(redisTemplate, booking);
+            } catch (Exception ex) {
+                log.warn("Failed to update the expiry trigger of booking ref: {}. Error: {}",
+                        booking.getBookingReference(), ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Caches the booking in its new state once the current transaction commits. The state is
+     * given explicitly because the bulk status updates do not touch the loaded entity.
+     */
+    public void putAfterCommit(Booking booking, BookingStatus status, BookingSeatStatus seatStatus) {
+        Booking snapshot = snapshot(booking, status, seatStatus);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(snapshot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(snapshot);
+            }
+        });
+    }
+
+    /**
+     * {@link #putAfterCommit} for many bookings; after commit they are written in one pipeline.
+     */
+    public void putAllAfterCommit(Collection<Booking> bookings, BookingStatus status, BookingSeatStatus seatStatus) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<Booking> snapshots = bookings.stream()
+                .map(booking -> snapshot(booking, status, seatStatus))
+                .toList();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            putAll(snapshots);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                putAll(snapshots);
+            }
+        });
+    }
+
+    String serialize(Booking booking) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(new BookingResponse(booking));
+    }
+
+    Duration ttlFor(Booking booking) {
+        return switch (booking.getStatus()) {
+            case PENDING_PAYMENT, INITIATED_BOOKING, PENDING_BOOKING -> {
+                Duration untilExpiry = booking.getExpiryTime() == null
+                        ? MIN_PENDING_TTL
+                        : Duration.between(LocalDateTime.now(), booking.getExpiryTime());
+                yield untilExpiry.compareTo(MIN_PENDING_TTL) < 0 ? MIN_PENDING_TTL : untilExpiry;
+            }
+            case CONFIRMED_BOOKING -> confirmedTtl;
+            case CANCELLED_BOOKING, EXPIRED_BOOKING -> closedTtl;
+        };
+    }
+
+    static String key(Booking booking) {
+        return BOOKING_CACHE_PREFIX + booking.getBookingReference();
+    }
+
+    static String expiryTriggerKey(Booking booking) {
+        return EXPIRY_TRIGGER_PREFIX + booking.getBookingReference();
+    }
+
+    boolean isExpiryTriggerNeeded(Booking booking) {
+        return expiryTriggers && isPending(booking);
+    }
+
+    // set while the booking is pending, gone once it is not
+    private void updateExpiryTrigger(RedisOperations<String, String> ops, Booking booking) {
+        if (isPending(booking)) {
+            ops.opsForValue().set(expiryTriggerKey(booking), "", ttlFor(booking));
+        } else {
+            ops.delete(expiryTriggerKey(booking));
+        }
+    }
+
+    private static boolean isPending(Booking booking) {
+        return switch (booking.getStatus()) {
+            case PENDING_PAYMENT, INITIATED_BOOKING, PENDING_BOOKING -> true;
+            case CONFIRMED_BOOKING, CANCELLED_BOOKING, EXPIRED_BOOKING -> false;
+        };
+    }
+
+    private BookingResponse read(String bookingReference) {
+        String cached = null;
+        try {
+            cached = redisTemplate.opsForValue().get(BOOKING_CACHE_PREFIX + bookingReference);
+        } catch (Exception ex) {
+            log.warn("Failed to read booking ref: {} from Redis, loading it from the database. Error: {}",
+                    bookingReference, ex.getMessage());
+        }
+        if (cached != null) {
+            try {
+                BookingResponse response = objectMapper.readValue(cached, BookingResponse.class);
+                hits.increment();
+                return response;
+            } catch (Exception ex) {
+                log.warn("Discarding unreadable cache entry for booking ref: {}. Error: {}",
+                        bookingReference, ex.getMessage());
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    private void fill(Booking booking) {
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key(booking), serialize(booking), ttlFor(booking));
+        } catch (Exception ex) {
+            log.warn("Failed to cache booking ref: {}. Error: {}", booking.getBookingReference(), ex.getMessage());
+        }
+    }
+
+    private void putAll(List<Booking> bookings) {
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (Booking booking : bookings) {
+                        try {
+                            ops.opsForValue().set(key(booking), serialize(booking), ttlFor(booking));
+                        } catch (JsonProcessingException ex) {
+                            ops.delete(key(booking));
+                        }
+                        if (expiryTriggers) {
+                            updateExpiryTrigger(ops, booking);
+                        }
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception ex) {
+            log.warn("Failed to cache {} bookings. Error: {}", bookings.size(), ex.getMessage());
+            evict(bookings);
+        }
+    }
+
+    // a stale entry must not outlive a failed refresh
+    private void evict(List<Booking> bookings) {
+        try {
+            redisTemplate.delete(bookings.stream().map(BookingCacheService::key).toList());
+        } catch (Exception ex) {
+            log.warn("Failed to evict {} cached bookings. Error: {}", bookings.size(), ex.getMessage());
+        }
+    }
+
+    private static Booking snapshot(Booking booking, BookingStatus status, BookingSeatStatus seatStatus) {
+        Booking snapshot = Booking.builder()
+                .id(booking.getId())
+                .bookingReference(booking.getBookingReference())
+                .userId(booking.getUserId())
+                .showId(booking.getShowId())
+                .status(status)
+                .baseAmount(booking.getBaseAmount())
+                .discountAmount(booking.getDiscountAmount())
+                .finalAmount(booking.getFinalAmount())
+                .bookingTime(booking.getBookingTime())
+                .expiryTime(booking.getExpiryTime())
+                .build();
+        snapshot.setBookingSeats(booking.getBookingSeats()
+                .stream()
+                .map(seat -> BookingSeat.builder()
+                        .id(seat.getId())
+                        .booking(snapshot)
+                        .seatInventoryId(seat.getSeatInventoryId())
+                        .seatNumber(seat.getSeatNumber())
+                        .pricePaid(seat.getPricePaid())
+                        .status(seatStatus)
+                        .build())
+                .toList());
+        return snapshot;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("booking.cache.redis")
+                .description("Booking lookups by reference served from Redis")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,142 @@
+package com.pbs.bookingservice.service;
+
+import com.pbs.bookingservice.repository.BookingRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks pending bookings in a {@link TimingWheel} with one-second ticks and hands bookings to
+ * {@link BookingExpiryService} in batches as soon as they are due, so held seats return to sale
+ * within a second of expiry instead of waiting for the next sweep. The wheel is rebuilt from the
+ * database on startup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExpiryScheduler {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final long RETRY_DELAY_MILLIS = 5000;
+
+    @Value("${booking.expiry.batch-size:100}")
+    private int batchSize;
+
+    private final BookingRepository bookingRepository;
+    private final BookingExpiryService bookingExpiryService;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimingWheel wheel = new TimingWheel(TICK_MILLIS, System.currentTimeMillis());
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("booking-expiry-wheel").daemon().factory());
+    private final List<Long> dueNow = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<Object[]> pending = bookingRepository.findPendingExpiryTimes();
+        for (Object[] row : pending) {
+            schedule((Long) row[0], (LocalDateTime) row[1]);
+        }
+        log.info("Booking expiry wheel rebuilt with {} pending bookings", pending.size());
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    public void schedule(Long bookingId, LocalDateTime expiryTime) {
+        if (bookingId == null || expiryTime == null) {
+            return;
+        }
+        long deadline = expiryTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        lock.lock();
+        try {
+            if (wheel.schedule(bookingId, deadline)) {
+                dueNow.add(bookingId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cancel(Long bookingId) {
+        lock.lock();
+        try {
+            wheel.cancel(bookingId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Expires a booking now, e.g. on a Redis key expiry notification, without waiting for its tick.
+     */
+    public void expireNow(Long bookingId) {
+        lock.lock();
+        try {
+            wheel.cancel(bookingId);
+            dueNow.add(bookingId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void tick() {
+        List<Long> due;
+        lock.lock();
+        try {
+            due = wheel.advance(System.currentTimeMillis());
+            if (!dueNow.isEmpty()) {
+                due.addAll(dueNow);
+                dueNow.clear();
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                int expired = bookingExpiryService.expireBookings(batch);
+                log.debug("Expiry wheel expired {} of {} due bookings", expired, batch.size());
+            } catch (Exception ex) {
+                log.error("Failed to expire {} due bookings, retrying in {} ms. Error: {}",
+                        batch.size(), RETRY_DELAY_MILLIS, ex.getMessage(), ex);
+                retry(batch);
+            }
+        }
+    }
+
+    private void retry(List<Long> bookingIds) {
+        long deadline = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+        lock.lock();
+        try {
+            bookingIds.forEach(bookingId -> wheel.schedule(bookingId, deadline));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
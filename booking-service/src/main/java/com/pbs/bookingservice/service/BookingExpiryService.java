@@ -0,0 +1,213 @@
+package com.pbs.bookingservice.service;
+
+import com.pbs.bookingservice.entity.Booking;
+import com.pbs.bookingservice.entity.BookingSeat;
+import com.pbs.bookingservice.entity.enums.BookingSeatStatus;
+import com.pbs.bookingservice.entity.enums.BookingStatus;
+import com.pbs.bookingservice.repository.BookingRepository;
+import com.pbs.bookingservice.repository.BookingSeatRepository;
+import com.pbs.bookingservice.saga.OutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expires overdue PENDING_PAYMENT bookings in bounded batches. Every batch claims its rows with
+ * {@code FOR UPDATE SKIP LOCKED} and commits on its own, so a large backlog never turns into one
+ * long transaction and several workers and nodes can share the work without blocking each other.
+ * With {@link BookingExpiryScheduler} expiring bookings on time, the sweep is the fallback for
+ * anything the timing wheel missed (other nodes' bookings, failed batches, restarts).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingExpiryService {
+
+    private static final long BOOKING_EXPIRY_CHECK_DELAY_MS = 60000;
+
+    @Value("${booking.expiry.batch-size:100}")
+    private int batchSize;
+
+    @Value("${booking.expiry.workers:2}")
+    private int workers;
+
+    @Value("${booking.expiry.max-batches-per-sweep:100}")
+    private int maxBatchesPerSweep;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final BookingRepository bookingRepository;
+    private final BookingSeatRepository bookingSeatRepository;
+    private final OutboxService outboxService;
+    private final SeatLockService seatLockService;
+    private final BookingCacheService bookingCacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private Counter expiredCounter;
+    private Timer sweepTimer;
+    private DistributionSummary batchSizeSummary;
+    private ExecutorService sweepers;
+
+    @PostConstruct
+    void init() {
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        sweepers = Executors.newFixedThreadPool(workers, builder.name("booking-expiry-", 0).factory());
+        Gauge.builder("booking.expiry.backlog", backlog, AtomicLong::get)
+                .description("Overdue PENDING_PAYMENT bookings at the start of the last sweep")
+                .register(meterRegistry);
+        Gauge.builder("booking.expiry.lag", lagSeconds, AtomicLong::get)
+                .description("Seconds the oldest overdue booking was past its expiry at the start of the last sweep")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        expiredCounter = Counter.builder("booking.expiry.expired")
+                .description("Bookings moved to EXPIRED_BOOKING")
+                .register(meterRegistry);
+        sweepTimer = Timer.builder("booking.expiry.sweep")
+                .description("Duration of a scheduled expiry sweep")
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("booking.expiry.batch.size")
+                .description("Bookings expired per batch")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweepers.shutdownNow();
+    }
+
+    @Scheduled(fixedDelay = BOOKING_EXPIRY_CHECK_DELAY_MS)
+    public void sweepExpiredBookings() {
+        log.debug("Running scheduled task to expire bookings");
+        sweepTimer.record(this::sweep);
+    }
+
+    private void sweep() {
+        if (!recordBacklog()) {
+            return;
+        }
+
+        List<Future<Integer>> results = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            results.add(sweepers.submit(this::drainBacklog));
+        }
+        int expired = 0;
+        for (Future<Integer> result : results) {
+            try {
+                expired += result.get();
+            } catch (Exception ex) {
+                log.error("Booking expiry worker failed. Error: {}", ex.getMessage(), ex);
+            }
+        }
+        log.info("Expired {} bookings in this sweep", expired);
+    }
+
+    /**
+     * Claims and expires one batch of overdue bookings in its own transaction.
+     *
+     * @return the number of bookings expired
+     */
+    public int expireNextBatch() {
+        List<Booking> expired = transactionTemplate.execute(status -> {
+            List<Long> bookingIds = bookingRepository.claimExpiredBookingIds(LocalDateTime.now(), batchSize);
+            return expire(bookingIds);
+        });
+        releaseSeatLocks(expired);
+        return expired.size();
+    }
+
+    /**
+     * Expires the given bookings that are still pending and overdue, in one transaction. Used by
+     * {@link BookingExpiryScheduler} to act on precise deadlines instead of waiting for a sweep.
+     *
+     * @return the number of bookings expired
+     */
+    public int expireBookings(List<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        List<Booking> expired = transactionTemplate.execute(status -> expire(
+                bookingRepository.claimExpiredBookingIdsIn(bookingIds, LocalDateTime.now())));
+        releaseSeatLocks(expired);
+        return expired.size();
+    }
+
+    private int drainBacklog() {
+        int expired = 0;
+        for (int batch = 0; batch < maxBatchesPerSweep; batch++) {
+            int count = expireNextBatch();
+            expired += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return expired;
+    }
+
+    private List<Booking> expire(List<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+        List<Booking> bookings = bookingRepository.findAllWithSeatsByIdIn(bookingIds);
+        bookingRepository.updateStatusIn(bookingIds, BookingStatus.PENDING_PAYMENT, BookingStatus.EXPIRED_BOOKING);
+        bookingSeatRepository.updateStatusByBookingIdIn(bookingIds, BookingSeatStatus.EXPIRED);
+        outboxService.saveBookingExpiredEvents(bookings);
+        bookingCacheService.putAllAfterCommit(bookings, BookingStatus.EXPIRED_BOOKING, BookingSeatStatus.EXPIRED);
+        expiredCounter.increment(bookings.size());
+        batchSizeSummary.record(bookings.size());
+        log.info("Expired batch of {} bookings", bookings.size());
+        return bookings;
+    }
+
+    // Seats of a pending booking are only held by their Redis locks; SEAT_INVENTORY still has
+    // them AVAILABLE, so releasing the locks after commit is the whole seat transition.
+    private void releaseSeatLocks(List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            List<Long> seatIds = booking.getBookingSeats()
+                    .stream()
+                    .map(BookingSeat::getSeatInventoryId)
+                    .toList();
+            try {
+                seatLockService.unlockSeats(booking.getShowId(), seatIds, booking.getUserId());
+            } catch (Exception ex) {
+                log.warn("Failed to release seat locks of expired booking ref: {}. Error: {}",
+                        booking.getBookingReference(), ex.getMessage());
+            }
+        }
+    }
+
+    private boolean recordBacklog() {
+        LocalDateTime now = LocalDateTime.now();
+        Object[] row = bookingRepository.findExpiryBacklog(now).getFirst();
+        long count = row[0] != null ? ((Number) row[0]).longValue() : 0L;
+        LocalDateTime oldestExpiry = (LocalDateTime) row[1];
+        backlog.set(count);
+        lagSeconds.set(oldestExpiry != null ? Duration.between(oldestExpiry, now).toSeconds() : 0L);
+        if (count > 0) {
+            log.info("Found {} expired bookings to process, oldest overdue by {}s", count, lagSeconds.get());
+        }
+        return count > 0;
+    }
+}
@@ -0,0 +1,163 @@
+package com.pbs.bookingservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pbs.bookingservice.common.ex.BookingValidationException;
+import com.pbs.bookingservice.common.resp.BookingHistoryItem;
+import com.pbs.bookingservice.common.resp.BookingHistoryPage;
+import com.pbs.bookingservice.common.resp.BookingSeatResponse;
+import com.pbs.bookingservice.repository.BookingHistoryRow;
+import com.pbs.bookingservice.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A user's booking history, newest first. Pages are found by keyset on (bookingTime, id), so a
+ * deep page costs the same as the first one; bookings and their seats are read as flat DTO rows
+ * in one join, without loading entities. The export streams the same rows from a database cursor
+ * straight to the response, so a long history is never held in memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingHistoryService {
+
+    private static final String CURSOR_SEPARATOR = "|";
+    private static final int EXPORT_FLUSH_EVERY = 100;
+
+    @Value("${booking.history.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${booking.history.max-page-size:100}")
+    private int maxPageSize;
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param cursor the previous page's {@code nextCursor}, or null for the first page
+     * @param size   bookings per page; defaults to {@code booking.history.default-page-size}
+     */
+    public BookingHistoryPage getHistory(Long userId, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.clamp(size, 1, maxPageSize);
+        log.debug("Retrieving booking history - userId: {}, cursor: {}, size: {}", userId, cursor, pageSize);
+
+        // one row more than asked for tells whether there is a next page
+        Limit limit = Limit.of(pageSize + 1);
+        List<Long> bookingIds;
+        if (cursor == null || cursor.isBlank()) {
+            bookingIds = bookingRepository.findHistoryIds(userId, limit);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            bookingIds = bookingRepository.findHistoryIdsAfter(userId, position.bookingTime(), position.bookingId(), limit);
+        }
+        boolean hasNext = bookingIds.size() > pageSize;
+        if (hasNext) {
+            bookingIds = bookingIds.subList(0, pageSize);
+        }
+        if (bookingIds.isEmpty()) {
+            return new BookingHistoryPage(List.of(), null);
+        }
+
+        List<BookingHistoryItem> bookings = new ArrayList<>(bookingIds.size());
+        group(bookingRepository.findHistoryRowsByIdIn(bookingIds).iterator(), bookings::add);
+        BookingHistoryItem last = bookings.getLast();
+        String nextCursor = hasNext ? new Cursor(last.bookingTime(), last.bookingId()).encode() : null;
+        return new BookingHistoryPage(bookings, nextCursor);
+    }
+
+    /**
+     * Writes all of the user's bookings to {@code out} as a JSON array of {@link BookingHistoryItem},
+     * one booking at a time.
+     */
+    public void exportHistory(Long userId, OutputStream out) {
+        log.debug("Exporting booking history - userId: {}", userId);
+        transactionTemplate.execute(status -> {
+            try (Stream<BookingHistoryRow> rows = bookingRepository.streamHistoryRows(userId);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // the servlet container owns the response stream
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                int[] written = {0};
+                group(rows.iterator(), item -> {
+                    try {
+                        generator.writeObject(item);
+                        if (++written[0] % EXPORT_FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                generator.writeEndArray();
+                log.info("Exported {} bookings for userId: {}", written[0], userId);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return null;
+        });
+    }
+
+    // rows arrive ordered by booking, so each booking is complete once the next one starts
+    private static void group(Iterator<BookingHistoryRow> rows, Consumer<BookingHistoryItem> sink) {
+        BookingHistoryRow current = null;
+        List<BookingSeatResponse> seats = new ArrayList<>();
+        while (rows.hasNext()) {
+            BookingHistoryRow row = rows.next();
+            if (current != null && !current.bookingId().equals(row.bookingId())) {
+                sink.accept(toItem(current, seats));
+                seats = new ArrayList<>();
+            }
+            current = row;
+            if (row.bookingSeatId() != null) {
+                seats.add(new BookingSeatResponse(row.bookingSeatId(), row.seatInventoryId(), row.seatNumber(),
+                        row.pricePaid(), row.seatStatus()));
+            }
+        }
+        if (current != null) {
+            sink.accept(toItem(current, seats));
+        }
+    }
+
+    private static BookingHistoryItem toItem(BookingHistoryRow row, List<BookingSeatResponse> seats) {
+        return new BookingHistoryItem(row.bookingId(), row.bookingReference(), row.showId(), row.status(),
+                row.baseAmount(), row.discountAmount(), row.finalAmount(), row.bookingTime(), row.expiryTime(),
+                List.copyOf(seats));
+    }
+
+    private record Cursor(LocalDateTime bookingTime, Long bookingId) {
+
+        String encode() {
+            String position = bookingTime + CURSOR_SEPARATOR + bookingId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = position.lastIndexOf(CURSOR_SEPARATOR);
+                return new Cursor(LocalDateTime.parse(position.substring(0, separator)),
+                        Long.valueOf(position.substring(separator + 1)));
+            } catch (RuntimeException ex) {
+                throw new BookingValidationException("Invalid booking history cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.pbs.bookingservice.service;
+
+import com.pbs.bookingservice.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.listener.KeyExpirationEventMessageListener;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Optional trigger: expires a booking when its {@code booking:expiry:<reference>} key expires in
+ * Redis. {@link BookingCacheService} keeps that key only while the booking is pending, apart from
+ * the cached booking itself, so a cached confirmed booking timing out triggers nothing. Needs
+ * keyspace notifications ({@code notify-keyspace-events Ex}), which the listener tries to enable
+ * on startup.
+ */
+@Component
+@ConditionalOnProperty(prefix = "booking.expiry", name = "keyspace-notifications", havingValue = "true")
+@Slf4j
+public class BookingKeyExpirationListener extends KeyExpirationEventMessageListener {
+
+    private final BookingRepository bookingRepository;
+    private final BookingExpiryScheduler bookingExpiryScheduler;
+
+    public BookingKeyExpirationListener(RedisMessageListenerContainer listenerContainer,
+                                        BookingRepository bookingRepository,
+                                        BookingExpiryScheduler bookingExpiryScheduler) {
+        super(listenerContainer);
+        this.bookingRepository = bookingRepository;
+        this.bookingExpiryScheduler = bookingExpiryScheduler;
+    }
+
+    @Override
+    protected void doHandleMessage(Message message) {
+        String key = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (!key.startsWith(BookingCacheService.EXPIRY_TRIGGER_PREFIX)) {
+            return;
+        }
+        String bookingReference = key.substring(BookingCacheService.EXPIRY_TRIGGER_PREFIX.length());
+        bookingRepository.findIdByBookingReference(bookingReference)
+                .ifPresent(bookingId -> {
+                    log.debug("Booking expiry key expired for reference: {}, expiring bookingId: {}",
+                            bookingReference, bookingId);
+                    bookingExpiryScheduler.expireNow(bookingId);
+                });
+    }
+}
@@ -0,0 +1,93 @@
+package com.pbs.bookingservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the booking request path. All meters are registered up front, so recording never
+ * goes through the registry. Lock counters are not tagged by show: a tag per show would add a
+ * time series for every show ever booked.
+ */
+@Component
+public class BookingMetrics {
+
+    private static final String STAGE_TIMER = "booking.initiate.stage";
+    private static final String SEAT_LOCK_COUNTER = "booking.seat.lock";
+
+    private final MeterRegistry meterRegistry;
+    private final Timer initiateTimer;
+    private final Timer validateTimer;
+    private final Timer lockTimer;
+    private final Timer priceTimer;
+    private final Timer persistTimer;
+    private final Timer outboxTimer;
+    private final Timer cacheTimer;
+    private final Counter lockAcquired;
+    private final Counter lockConflicts;
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.initiateTimer = Timer.builder("booking.initiate")
+                .description("Successful initiateBooking calls, end to end")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.validateTimer = stageTimer("validate");
+        this.lockTimer = stageTimer("lock");
+        this.priceTimer = stageTimer("price");
+        this.persistTimer = stageTimer("persist");
+        this.outboxTimer = stageTimer("outbox");
+        this.cacheTimer = stageTimer("cache");
+        this.lockAcquired = seatLockCounter("acquired");
+        this.lockConflicts = seatLockCounter("conflict");
+    }
+
+    public void recordInitiate(long startNanos) {
+        initiateTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordValidate(long startNanos) {
+        validateTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLock(long startNanos) {
+        lockTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPrice(long startNanos) {
+        priceTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPersist(long startNanos) {
+        persistTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOutbox(long startNanos) {
+        outboxTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCache(long startNanos) {
+        cacheTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSeatLock(boolean acquired) {
+        (acquired ? lockAcquired : lockConflicts).increment();
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder(STAGE_TIMER)
+                .description("Time spent in one stage of initiateBooking")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private Counter seatLockCounter(String outcome) {
+        return Counter.builder(SEAT_LOCK_COUNTER)
+                .description("Multi-seat lock attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
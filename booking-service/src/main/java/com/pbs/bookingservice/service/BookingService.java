@@ -1,6 +1,7 @@
 package com.pbs.bookingservice.service;
 
 import com.github.f4b6a3.ulid.UlidCreator;
+import com.pbs.bookingservice.common.event.SeatStatusChangedEvent;
 import com.pbs.bookingservice.common.ex.*;
 import com.pbs.bookingservice.common.req.BookingRequest;
 import com.pbs.bookingservice.common.resp.BookingResponse;
@@ -8,44 +9,81 @@ import com.pbs.bookingservice.common.resp.PricingDetails;
 import com.pbs.bookingservice.entity.Booking;
 import com.pbs.bookingservice.entity.BookingSeat;
 import com.pbs.bookingservice.entity.SeatInventory;
-import com.pbs.bookingservice.entity.Show;
 import com.pbs.bookingservice.entity.enums.BookingSeatStatus;
 import com.pbs.bookingservice.entity.enums.BookingStatus;
 import com.pbs.bookingservice.entity.enums.SeatStatus;
 import com.pbs.bookingservice.kafka.KafkaEventPublisher;
 import com.pbs.bookingservice.repository.BookingRepository;
+import com.pbs.bookingservice.repository.BookingSeatRepository;
 import com.pbs.bookingservice.repository.SeatInventoryRepository;
 import com.pbs.bookingservice.repository.ShowRepository;
 import com.pbs.bookingservice.saga.OutboxService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BookingService {
-    private static final int BOOKING_EXPIRY_MINUTES = 15;
-    private static final long BOOKING_EXPIRY_CHECK_DELAY_MS = 60000;
+    static final int BOOKING_EXPIRY_MINUTES = 15;
+    static final String BOOKING_CACHE_PREFIX = "BOOKING:";
 
-    private final RedisTemplate<String, String> redisTemplate;
     private final KafkaEventPublisher kafkaPublisher;
     private final PricingService pricingService;
     private final SeatInventoryRepository seatInventoryRepository;
     private final BookingRepository bookingRepository;
+    private final BookingSeatRepository bookingSeatRepository;
     private final SeatLockService seatLockService;
     private final OutboxService outboxService;
     private final ShowRepository showRepository;
+    private final SeatAvailabilityService seatAvailabilityService;
+    private final BookingExpiryScheduler bookingExpiryScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingMetrics bookingMetrics;
+    private final BookingCacheService bookingCacheService;
+    private final IdempotencyService idempotencyService;
+    private final ShowAdmissionService showAdmissionService;
+
+    /**
+     * Same as {@link #initiateBooking(BookingRequest)}, once the show's admission gate lets the
+     * request in. With an idempotency key, a repeated request gets the first request's booking
+     * back instead of creating another one, without going through the gate again.
+     *
+     * @param queueTicket the ticket of an earlier admission rejection, or null
+     */
+    public BookingResponse initiateBooking(BookingRequest request, String idempotencyKey, String queueTicket) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return admitAndInitiate(request, queueTicket);
+        }
+        return idempotencyService.execute(String.valueOf(request.getUserId()), idempotencyKey,
+                fingerprint(request), BookingResponse.class, () -> admitAndInitiate(request, queueTicket));
+    }
+
+    private BookingResponse admitAndInitiate(BookingRequest request, String queueTicket) {
+        validateBookingRequest(request);
+        try (ShowAdmissionService.Permit permit = showAdmissionService.admit(request.getShowId(), queueTicket)) {
+            return initiateBooking(request);
+        }
+    }
+
     public BookingResponse initiateBooking(BookingRequest request) {
         log.debug("Initiating booking for userId: {}, showId: {}, seats: {}",
                 request.getUserId(), request.getShowId(), request.getSeatNumbers());
+        long startNanos = System.nanoTime();
 
         validateBookingRequest(request);
 
@@ -53,35 +91,46 @@ public class BookingService {
         List<SeatInventory> seats = validateAndLockSeats(
                 request.getShowId(),
                 request.getSeatNumbers(),
-                request.getUserId()
+                request.getUserId(),
+                startNanos
         );
         log.info("Successfully locked {} seats for userId: {}, showId: {}",
                 seats.size(), request.getUserId(), request.getShowId());
 
         // Pricing
+        long stageStart = System.nanoTime();
         PricingDetails pricing =
                 pricingService.calculatePricing(seats, request.getOfferCode());
+        bookingMetrics.recordPrice(stageStart);
         log.info("Pricing calculated - Base: {}, Discount: {}, Final: {} for userId: {}",
                 pricing.getBaseAmount(), pricing.getDiscountAmount(), pricing.getFinalAmount(), request.getUserId());
 
         // Create booking
+        stageStart = System.nanoTime();
         Booking booking = createBookingRecord(request, seats, pricing);
+        bookingMetrics.recordPersist(stageStart);
         log.info("Booking created with reference: {} for userId: {}",
                 booking.getBookingReference(), request.getUserId());
+        bookingExpiryScheduler.schedule(booking.getId(), booking.getExpiryTime());
 
-        // Write Outbox Event (same transaction)
+        // Write Outbox Event (own transaction, after the booking's)
+        stageStart = System.nanoTime();
         outboxService.saveBookingInitiatedEvent(booking);
+        bookingMetrics.recordOutbox(stageStart);
 
         // Cache booking temporarily
+        stageStart = System.nanoTime();
         cacheBooking(booking);
+        bookingMetrics.recordCache(stageStart);
 
         // Publish Kafka event
         // publishBookingInitiatedEvent(booking);
         log.info("Booking initiated successfully with reference: {}", booking.getBookingReference());
+        bookingMetrics.recordInitiate(startNanos);
         return new BookingResponse(booking);
     }
 
-    private Booking createBookingRecord(
+    Booking createBookingRecord(
             BookingRequest request,
             List<SeatInventory> seats,
             PricingDetails pricing) {
@@ -111,24 +160,17 @@ public class BookingService {
     private List<SeatInventory> validateAndLockSeats(
             Long showId,
             List<String> seatNumbers,
-            Long userId) {
-        log.debug("Validating and locking seats for showId: {}, userId: {}, seatNumbers: {}",
-                showId, userId, seatNumbers);
-
-        List<SeatInventory> seats =
-                seatInventoryRepository.findByShowIdAndSeatNumberIn(showId, seatNumbers);
-
-        if (seats.size() != seatNumbers.size()) {
-            log.error("Seats not found - Requested: {}, Found: {} for showId: {}",
-                    seatNumbers.size(), seats.size(), showId);
-            throw new BookingException("Some seats not found");
-        }
+            Long userId,
+            long validateStartNanos) {
+        List<SeatInventory> seats = loadAvailableSeats(showId, seatNumbers, userId, validateStartNanos);
+        List<Long> seatIds = seats.stream()
+                .map(SeatInventory::getId)
+                .toList();
 
-        boolean isAllSeatsLocked = seats.stream().allMatch(seat -> {
-            validateSeatAvailability(seat);
-            return seatLockService.lockSeat(seat.getId(), userId);
-        });
-        if (!isAllSeatsLocked) {
+        long stageStart = System.nanoTime();
+        boolean locked = seatLockService.lockSeats(showId, seatIds, userId);
+        bookingMetrics.recordLock(stageStart);
+        if (!locked) {
             log.error("Failed to lock all seats for userId: {}, showId: {}, seatNumbers: {}",
                     userId, showId, seatNumbers);
             throw new SeatLockException("Failed to lock all seats");
@@ -138,31 +180,56 @@ public class BookingService {
         return seats;
     }
 
-    @Transactional
-    public void confirmBooking(Long bookingId) {
-        log.debug("Confirming booking with bookingId: {}", bookingId);
-
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new BookingNotFoundException("Booking not found"));
-
-        validateBookingForConfirmation(booking);
-
-        outboxService.saveBookingConfirmedEvent(booking);
+    /**
+     * @param validateStartNanos when the request's validation began, so the {@code validate}
+     *                           stage covers {@link #validateBookingRequest} as well
+     */
+    List<SeatInventory> loadAvailableSeats(Long showId, List<String> seatNumbers, Long userId, long validateStartNanos) {
+        log.debug("Validating and locking seats for showId: {}, userId: {}, seatNumbers: {}",
+                showId, userId, seatNumbers);
 
-        List<SeatInventory> seats = getSeatsForBooking(booking);
+        // The request is canonicalized against the cached layout: seat numbers become the layout's
+        // ordinals, duplicates are dropped, and the seats are sorted into seat id order, the order
+        // every lock and row claim below is taken in. Ids, numbers and prices come from the layout;
+        // the database only confirms availability.
+        ShowSeatAvailability availability = seatAvailabilityService.getAvailability(showId);
+        if (availability == null) {
+            log.error("Booking requested for unknown showId: {}", showId);
+            throw new ShowNotFoundException("Show not found: " + showId);
+        }
+        int[] ordinals = availability.canonicalOrdinals(seatNumbers);
+        if (ordinals == null) {
+            log.error("Seats not found - Requested: {} for showId: {}", seatNumbers, showId);
+            throw new BookingException("Some seats not found");
+        }
+        if (ordinals.length != seatNumbers.size()) {
+            log.debug("Dropped {} duplicate seat numbers for showId: {}, userId: {}",
+                    seatNumbers.size() - ordinals.length, showId, userId);
+        }
+        seatAvailabilityService.checkAvailable(availability, ordinals);
+        List<SeatInventory> seats = Arrays.stream(ordinals)
+                .mapToObj(ordinal -> availability.getLayout().seatAt(ordinal))
+                .toList();
 
-        updateSeatsStatus(seats, SeatStatus.BOOKED);
-        unlockSeats(seats);
+        List<String> unavailable = seatInventoryRepository.findSeatNumbersByIdInAndSeatStatusNot(
+                seats.stream().map(SeatInventory::getId).toList(), SeatStatus.AVAILABLE);
+        if (!unavailable.isEmpty()) {
+            log.error("Seat validation failed - Seats {} are not available for showId: {}", unavailable, showId);
+            throw new SeatUnavailableException("Seat is not available. " + unavailable.getFirst());
+        }
+        bookingMetrics.recordValidate(validateStartNanos);
+        return seats;
+    }
 
-        booking.setStatus(BookingStatus.CONFIRMED_BOOKING);
-        booking.getBookingSeats()
-                .forEach(bookingSeat -> bookingSeat.setStatus(BookingSeatStatus.BOOKED));
-        bookingRepository.save(booking);
+    @Transactional
+    public void confirmBooking(Long bookingId) {
+        ConfirmedBooking confirmed = confirmBookingRecord(bookingId);
+        Booking booking = confirmed.booking();
+        List<Long> seatIds = confirmed.seatIds();
 
-        Show show = showRepository.findById(booking.getShowId())
-                .orElseThrow(() -> new BookingException("Show not found"));
-        show.setAvailableSeats(show.getAvailableSeats() - seats.size());
-        showRepository.save(show);
+        unlockSeats(booking, seatIds);
+        bookingExpiryScheduler.cancel(bookingId);
+        eventPublisher.publishEvent(new SeatStatusChangedEvent(booking.getShowId(), seatIds, SeatStatus.BOOKED));
 
         //publishBookingConfirmedEvent(booking);
         log.info("Booking confirmed successfully - bookingId: {}, reference: {}, userId: {}",
@@ -170,22 +237,45 @@ public class BookingService {
 
     }
 
-    @Scheduled(fixedDelay = BOOKING_EXPIRY_CHECK_DELAY_MS)
-    @Transactional
-    public void expireBookings() {
-        log.debug("Running scheduled task to expire bookings");
+    /**
+     * The database part of a confirmation; must run in a transaction.
+     */
+    ConfirmedBooking confirmBookingRecord(Long bookingId) {
+        log.debug("Confirming booking with bookingId: {}", bookingId);
+
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found"));
 
-        List<Booking> expiredBookings =
-                bookingRepository.findExpiredBookings(LocalDateTime.now());
+        validateBookingForConfirmation(booking);
+
+        // Conditional bulk transitions: a concurrent confirm/expiry or an already booked seat
+        // leaves the affected count short and rolls the whole confirmation back.
+        if (bookingRepository.updateStatus(bookingId,
+                BookingStatus.PENDING_PAYMENT, BookingStatus.CONFIRMED_BOOKING) != 1) {
+            log.error("Booking confirmation failed - booking ref: {} is no longer pending payment",
+                    booking.getBookingReference());
+            throw new BookingValidationException("Invalid booking state for booking ref" + booking.getBookingReference());
+        }
 
-        if (expiredBookings == null || expiredBookings.isEmpty()) {
-            return;
+        List<Long> seatIds = getSeatIdsForBooking(booking);
+        // rows in the global lock order: booking, seat inventory by id, booking seats, show
+        int bookedSeats = seatInventoryRepository.claimSeats(seatIds, SeatStatus.AVAILABLE, SeatStatus.BOOKED);
+        if (bookedSeats != seatIds.size()) {
+            log.error("Booking confirmation failed - only {} of {} seats available for booking ref: {}",
+                    bookedSeats, seatIds.size(), booking.getBookingReference());
+            throw new SeatUnavailableException("Seats are no longer available for booking ref " + booking.getBookingReference());
         }
+        bookingSeatRepository.updateStatusByBookingId(bookingId, BookingSeatStatus.BOOKED);
 
-        log.info("Found {} expired bookings to process", expiredBookings.size());
-        for (Booking booking : expiredBookings) {
-            expireBooking(booking);
+        if (showRepository.decrementAvailableSeats(booking.getShowId(), seatIds.size()) != 1) {
+            log.error("Booking confirmation failed - show {} has fewer than {} available seats",
+                    booking.getShowId(), seatIds.size());
+            throw new BookingException("Not enough available seats for show " + booking.getShowId());
         }
+
+        outboxService.saveBookingConfirmedEvent(booking);
+        bookingCacheService.putAfterCommit(booking, BookingStatus.CONFIRMED_BOOKING, BookingSeatStatus.BOOKED);
+        return new ConfirmedBooking(booking, seatIds);
     }
 
     public BookingResponse getBookingById(Long bookingId, Long userId) {
@@ -193,15 +283,16 @@ public class BookingService {
         Booking booking = bookingRepository.findByBookingIdAndUserId(bookingId, userId)
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found"));
 
-        // suppose payment done -> change the status confirm to test it
-        booking.setStatus(BookingStatus.CONFIRMED_BOOKING);
-        bookingRepository.save(booking);
-
         validateBookingOwnership(booking, userId);
         return new BookingResponse(booking);
     }
 
-    private void validateBookingRequest(BookingRequest request) {
+    public BookingResponse getBookingByReference(String bookingReference, Long userId) {
+        log.debug("Retrieving booking - reference: {}, userId: {}", bookingReference, userId);
+        return bookingCacheService.getBookingByReference(bookingReference, userId);
+    }
+
+    void validateBookingRequest(BookingRequest request) {
         if (request.getShowId() == null) {
             log.error("Booking validation failed: Show ID is missing");
             throw new BookingException("Show ID is required");
@@ -216,14 +307,6 @@ public class BookingService {
         }
     }
 
-    private void validateSeatAvailability(SeatInventory seat) {
-        if (!SeatStatus.AVAILABLE.equals(seat.getSeatStatus())) {
-            log.error("Seat validation failed - Seat {} is not available, current status: {}",
-                    seat.getSeatNumber(), seat.getSeatStatus());
-            throw new SeatUnavailableException("Seat is not available. " + seat.getSeatNumber());
-        }
-    }
-
     private void validateBookingForConfirmation(Booking booking) {
         if (!BookingStatus.PENDING_PAYMENT.equals(booking.getStatus())) {
             log.error("Booking confirmation validation failed - Invalid state: {} for booking ref: {}",
@@ -254,52 +337,21 @@ public class BookingService {
         return bookingSeat;
     }
 
-    private List<SeatInventory> getSeatsForBooking(Booking booking) {
-        List<Long> seatInventoryIds = booking.getBookingSeats()
+    private List<Long> getSeatIdsForBooking(Booking booking) {
+        return booking.getBookingSeats()
                 .stream()
                 .map(BookingSeat::getSeatInventoryId)
                 .toList();
-        return seatInventoryRepository.findAllById(seatInventoryIds);
     }
 
-    private void updateSeatsStatus(List<SeatInventory> seats, SeatStatus status) {
-        seats.forEach(seat -> seat.setSeatStatus(status));
-        seatInventoryRepository.saveAll(seats);
-    }
-
-    private void unlockSeats(List<SeatInventory> seats) {
-        seats.forEach(seat -> seatLockService.unlockSeat(seat.getId()));
+    private void unlockSeats(Booking booking, List<Long> seatIds) {
+        seatLockService.unlockSeats(booking.getShowId(), seatIds, booking.getUserId());
     }
 
     private void cacheBooking(Booking booking) {
         log.debug("Caching booking - reference: {}, bookingId: {}, expiry: {} minutes",
                 booking.getBookingReference(), booking.getId(), BOOKING_EXPIRY_MINUTES);
-        redisTemplate.opsForValue().set(
-                "BOOKING:" + booking.getBookingReference(),
-                booking.getId().toString(),
-                BOOKING_EXPIRY_MINUTES,
-                TimeUnit.MINUTES
-        );
-    }
-
-    private void expireBooking(Booking booking) {
-        log.info("Expiring booking - bookingId: {}, reference: {}, userId: {}",
-                booking.getId(), booking.getBookingReference(), booking.getUserId());
-        booking.setStatus(BookingStatus.EXPIRED_BOOKING);
-        booking.getBookingSeats().forEach(bookingSeat -> bookingSeat.setStatus(BookingSeatStatus.EXPIRED));
-        bookingRepository.save(booking);
-
-        outboxService.saveBookingExpiredEvent(booking);
-
-        List<SeatInventory> seats = getSeatsForBooking(booking);
-
-        seats.forEach(seat -> {
-            seat.setSeatStatus(SeatStatus.AVAILABLE);
-            seatLockService.unlockSeat(seat.getId());
-        });
-
-        seatInventoryRepository.saveAll(seats);
-        // publishBookingExpiredEvent(booking);
+        bookingCacheService.put(booking);
     }
 
     private void publishBookingInitiatedEvent(Booking booking) {
@@ -331,4 +383,42 @@ public class BookingService {
                 .map(BookingResponse::new)
                 .toList();
     }
+
+    /**
+     * SHA-256 of the request body: show, seat count, seats and offer code. Every field is written with its length in
+     * front, so no two different requests serialize to the same bytes, and the seats are sorted and
+     * de-duplicated, so the same seats in another order or repeated are the same request.
+     */
+    static String fingerprint(BookingRequest request) {
+        StringBuilder canonical = new StringBuilder();
+        appendField(canonical, request.getShowId() != null ? request.getShowId().toString() : null);
+        appendField(canonical, request.getSeatCount() != null ? request.getSeatCount().toString() : null);
+        if (request.getSeatNumbers() == null) {
+            canonical.append("-1;");
+        } else {
+            Set<String> seatNumbers = new TreeSet<>(Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+            seatNumbers.addAll(request.getSeatNumbers());
+            canonical.append(seatNumbers.size()).append(';');
+            seatNumbers.forEach(seatNumber -> appendField(canonical, seatNumber));
+        }
+        appendField(canonical, request.getOfferCode() != null ? request.getOfferCode().name() : null);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static void appendField(StringBuilder canonical, String value) {
+        if (value == null) {
+            canonical.append("-1;");
+        } else {
+            canonical.append(value.length()).append(':').append(value).append(';');
+        }
+    }
+
+    record ConfirmedBooking(Booking booking, List<Long> seatIds) {
+    }
 }
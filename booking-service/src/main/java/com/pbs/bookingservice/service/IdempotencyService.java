@@ -0,0 +1,182 @@
+package com.pbs.bookingservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pbs.bookingservice.common.ex.IdempotencyConflictException;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Blocking counterpart of {@link ReactiveIdempotencyService}, for the {@code /api/v1} endpoints.
+ * Both use the same keys and values, so a key first used on one API version is honoured on the
+ * other. A duplicate of a completed request is answered from Redis without touching the database;
+ * a duplicate of one still in flight waits for its result.
+ * <p>
+ * The in-flight marker carries a token of the claim that wrote it. The claim renews the marker
+ * every third of the in-flight TTL while its work runs, and stores its result or releases the key
+ * only if the marker is still its own, so a slow first request never loses its key to a retry and
+ * never overwrites a key another request has claimed since.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    static final String KEY_PREFIX = "booking:idempotency:";
+    static final String IN_FLIGHT = "IN_FLIGHT";
+    static final String COMPLETED = "DONE";
+    static final String SEPARATOR = ":";
+
+    static final RedisScript<Long> RENEW_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/idempotency_renew.lua"), Long.class);
+
+    static final RedisScript<Long> COMPLETE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/idempotency_complete.lua"), Long.class);
+
+    static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/idempotency_release.lua"), Long.class);
+
+    @Value("${booking.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${booking.idempotency.in-flight-ttl:PT30S}")
+    private Duration inFlightTtl;
+
+    @Value("${booking.idempotency.poll-interval:PT0.05S}")
+    private Duration pollInterval;
+
+    private final ScheduledExecutorService leaseRenewer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("idempotency-lease").daemon().factory());
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @PreDestroy
+    void stop() {
+        leaseRenewer.shutdownNow();
+    }
+
+    /**
+     * @param scope       whose key it is, so two users can not see each other's results
+     * @param fingerprint identifies the request body the key was first used with
+     * @throws IdempotencyConflictException when the key was used for a different request, or the
+     *                                      request holding it is still running after the in-flight TTL
+     *                                      has passed once
+     */
+    public <T> T execute(String scope, String idempotencyKey, String fingerprint, Class<T> type, Supplier<T> work) {
+        String key = KEY_PREFIX + scope + SEPARATOR + idempotencyKey;
+        ValueOperations<String, String> ops = redisTemplate.opsForValue();
+        long deadline = System.nanoTime() + inFlightTtl.toNanos();
+        while (true) {
+            String marker = inFlightMarker(fingerprint);
+            if (Boolean.TRUE.equals(ops.setIfAbsent(key, marker, inFlightTtl))) {
+                return run(key, marker, fingerprint, work);
+            }
+            String value = ops.get(key);
+            if (value == null) {
+                // the first attempt failed and released the key, or its marker expired
+                continue;
+            }
+            String[] parts = value.split(SEPARATOR, 3);
+            if (parts.length < 2 || !fingerprint.equals(parts[1])) {
+                throw new IdempotencyConflictException("Idempotency-Key was already used for a different request");
+            }
+            if (!IN_FLIGHT.equals(parts[0])) {
+                log.debug("Replaying the stored result for idempotency key {}", key);
+                return read(parts[2], type);
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new IdempotencyConflictException("A request with this Idempotency-Key is still in progress");
+            }
+            pause();
+        }
+    }
+
+    static String inFlightMarker(String fingerprint) {
+        return IN_FLIGHT + SEPARATOR + fingerprint + SEPARATOR + UUID.randomUUID();
+    }
+
+    static long renewIntervalMillis(Duration inFlightTtl) {
+        return Math.max(1, inFlightTtl.toMillis() / 3);
+    }
+
+    private <T> T run(String key, String marker, String fingerprint, Supplier<T> work) {
+        long renewInterval = renewIntervalMillis(inFlightTtl);
+        ScheduledFuture<?> lease = leaseRenewer.scheduleWithFixedDelay(() -> renew(key, marker),
+                renewInterval, renewInterval, TimeUnit.MILLISECONDS);
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException ex) {
+            lease.cancel(false);
+            release(key, marker);
+            throw ex;
+        }
+        lease.cancel(false);
+        try {
+            String value = COMPLETED + SEPARATOR + fingerprint + SEPARATOR + objectMapper.writeValueAsString(result);
+            Long stored = redisTemplate.execute(COMPLETE_SCRIPT, List.of(key), marker, value,
+                    String.valueOf(ttl.toMillis()));
+            if (!Long.valueOf(1).equals(stored)) {
+                log.warn("Idempotency key {} was no longer held by this request; its result was not stored", key);
+            }
+        } catch (Exception ex) {
+            // the work is done; a duplicate will find the key released and run it again
+            log.warn("Failed to store the result for idempotency key {}. Error: {}", key, ex.getMessage());
+            release(key, marker);
+        }
+        return result;
+    }
+
+    private void renew(String key, String marker) {
+        try {
+            Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(key), marker,
+                    String.valueOf(inFlightTtl.toMillis()));
+            if (!Long.valueOf(1).equals(renewed)) {
+                log.warn("Lost the in-flight marker of idempotency key {} while the request was running", key);
+            }
+        } catch (Exception ex) {
+            log.warn("Failed to renew idempotency key {}. Error: {}", key, ex.getMessage());
+        }
+    }
+
+    private void release(String key, String marker) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(key), marker);
+        } catch (Exception ex) {
+            log.warn("Failed to release idempotency key {}. Error: {}", key, ex.getMessage());
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Unreadable result stored for idempotency key", ex);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(pollInterval);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for a request with this Idempotency-Key");
+        }
+    }
+}
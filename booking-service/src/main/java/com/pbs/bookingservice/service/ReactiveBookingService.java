@@ -0,0 +1,188 @@
+package com.pbs.bookingservice.service;
+
+import com.pbs.bookingservice.common.event.SeatStatusChangedEvent;
+import com.pbs.bookingservice.common.ex.SeatLockException;
+import com.pbs.bookingservice.common.req.BookingRequest;
+import com.pbs.bookingservice.common.resp.BookingResponse;
+import com.pbs.bookingservice.common.resp.PricingDetails;
+import com.pbs.bookingservice.entity.Booking;
+import com.pbs.bookingservice.entity.SeatInventory;
+import com.pbs.bookingservice.entity.enums.SeatStatus;
+import com.pbs.bookingservice.saga.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+
+/**
+ * Non-blocking variant of the {@link BookingService} flow behind the {@code /api/v2/booking}
+ * endpoints. Seat locks, the booking cache and idempotency keys go through
+ * {@link ReactiveRedisTemplate}; the JPA work keeps its validation and transactions from
+ * {@link BookingService} and runs on the bounded {@code jdbcScheduler}, so no request thread
+ * waits on Redis and at most one thread per pooled connection waits on Postgres.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveBookingService {
+
+    private final BookingService bookingService;
+    private final ReactiveSeatLockService reactiveSeatLockService;
+    private final ReactiveIdempotencyService reactiveIdempotencyService;
+    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    private final BookingCacheService bookingCacheService;
+    private final ShowAdmissionService showAdmissionService;
+    private final PricingService pricingService;
+    private final OutboxService outboxService;
+    private final BookingExpiryScheduler bookingExpiryScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingMetrics bookingMetrics;
+    private final Scheduler jdbcScheduler;
+
+    /**
+     * Same as {@link BookingService#initiateBooking(BookingRequest, String, String)}; the wait
+     * for admission does not hold a thread.
+     */
+    public Mono<BookingResponse> initiateBooking(BookingRequest request, String idempotencyKey, String queueTicket) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return admitAndInitiate(request, queueTicket);
+        }
+        return reactiveIdempotencyService.execute(String.valueOf(request.getUserId()), idempotencyKey,
+                BookingService.fingerprint(request), BookingResponse.class, () -> admitAndInitiate(request, queueTicket));
+    }
+
+    // the request is validated once, before it takes a permit
+    private Mono<BookingResponse> admitAndInitiate(BookingRequest request, String queueTicket) {
+        return Mono.defer(() -> {
+            long validationNanos = validate(request);
+            return Mono.usingWhen(
+                    showAdmissionService.admitNonBlocking(request.getShowId(), queueTicket),
+                    permit -> initiateValidBooking(request, validationNanos),
+                    permit -> Mono.fromRunnable(permit::close));
+        });
+    }
+
+    public Mono<BookingResponse> initiateBooking(BookingRequest request) {
+        return Mono.defer(() -> initiateValidBooking(request, validate(request)));
+    }
+
+    /**
+     * @return how long the validation took, counted into the {@code validate} stage
+     */
+    private long validate(BookingRequest request) {
+        long validateStart = System.nanoTime();
+        bookingService.validateBookingRequest(request);
+        return System.nanoTime() - validateStart;
+    }
+
+    private Mono<BookingResponse> initiateValidBooking(BookingRequest request, long validationNanos) {
+        log.debug("Initiating reactive booking for userId: {}, showId: {}, seats: {}",
+                request.getUserId(), request.getShowId(), request.getSeatNumbers());
+        long startNanos = System.nanoTime();
+
+        return Mono.fromCallable(() -> bookingService.loadAvailableSeats(request.getShowId(),
+                        request.getSeatNumbers(), request.getUserId(), System.nanoTime() - validationNanos))
+                .subscribeOn(jdbcScheduler)
+                .flatMap(seats -> lockSeats(request, seats).thenReturn(seats))
+                .flatMap(seats -> createBooking(request, seats)
+                        .onErrorResume(ex -> releaseSeats(request, seats).then(Mono.error(ex))))
+                .flatMap(booking -> cacheBooking(booking).thenReturn(booking))
+                .map(booking -> {
+                    log.info("Booking initiated successfully with reference: {}", booking.getBookingReference());
+                    bookingMetrics.recordInitiate(startNanos);
+                    return new BookingResponse(booking);
+                });
+    }
+
+    /**
+     * Same as {@link BookingService#confirmBooking}; the seat locks are released and listeners
+     * notified once the confirmation is committed.
+     */
+    public Mono<Void> confirmBooking(Long bookingId) {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> bookingService.confirmBookingRecord(bookingId)))
+                .subscribeOn(jdbcScheduler)
+                .flatMap(confirmed -> {
+                    Booking booking = confirmed.booking();
+                    return reactiveSeatLockService.unlockSeats(booking.getShowId(), confirmed.seatIds(), booking.getUserId())
+                            .then(Mono.fromRunnable(() -> {
+                                bookingExpiryScheduler.cancel(bookingId);
+                                eventPublisher.publishEvent(new SeatStatusChangedEvent(
+                                        booking.getShowId(), confirmed.seatIds(), SeatStatus.BOOKED));
+                                log.info("Booking confirmed successfully - bookingId: {}, reference: {}, userId: {}",
+                                        bookingId, booking.getBookingReference(), booking.getUserId());
+                            }).subscribeOn(jdbcScheduler));
+                })
+                .then();
+    }
+
+    private Mono<Void> lockSeats(BookingRequest request, List<SeatInventory> seats) {
+        long stageStart = System.nanoTime();
+        return reactiveSeatLockService.lockSeats(request.getShowId(), seatIds(seats), request.getUserId())
+                .flatMap(locked -> {
+                    bookingMetrics.recordLock(stageStart);
+                    if (!locked) {
+                        log.error("Failed to lock all seats for userId: {}, showId: {}, seatNumbers: {}",
+                                request.getUserId(), request.getShowId(), request.getSeatNumbers());
+                        return Mono.error(new SeatLockException("Failed to lock all seats"));
+                    }
+                    return Mono.<Void>empty();
+                });
+    }
+
+    private Mono<Booking> createBooking(BookingRequest request, List<SeatInventory> seats) {
+        return Mono.fromCallable(() -> {
+            long stageStart = System.nanoTime();
+            PricingDetails pricing = pricingService.calculatePricing(seats, request.getOfferCode());
+            bookingMetrics.recordPrice(stageStart);
+
+            // the booking and its outbox event commit together
+            stageStart = System.nanoTime();
+            Booking booking = transactionTemplate.execute(status -> {
+                Booking created = bookingService.createBookingRecord(request, seats, pricing);
+                outboxService.saveBookingInitiatedEvent(created);
+                return created;
+            });
+            bookingMetrics.recordPersist(stageStart);
+            bookingExpiryScheduler.schedule(booking.getId(), booking.getExpiryTime());
+            return booking;
+        }).subscribeOn(jdbcScheduler);
+    }
+
+    private Mono<Void> releaseSeats(BookingRequest request, List<SeatInventory> seats) {
+        return reactiveSeatLockService.unlockSeats(request.getShowId(), seatIds(seats), request.getUserId())
+                .onErrorResume(ex -> Mono.empty());
+    }
+
+    // the booking is committed by now; a cache failure must not turn it into an error
+    private Mono<Void> cacheBooking(Booking booking) {
+        long stageStart = System.nanoTime();
+        return Mono.fromCallable(() -> bookingCacheService.serialize(booking))
+                .flatMap(value -> reactiveRedisTemplate.opsForValue()
+                        .set(BookingCacheService.key(booking), value, bookingCacheService.ttlFor(booking)))
+                .flatMap(cached -> bookingCacheService.isExpiryTriggerNeeded(booking)
+                        ? reactiveRedisTemplate.opsForValue().set(BookingCacheService.expiryTriggerKey(booking), "",
+                                bookingCacheService.ttlFor(booking))
+                        : Mono.just(cached))
+                .doOnSuccess(cached -> bookingMetrics.recordCache(stageStart))
+                .then()
+                .onErrorResume(ex -> {
+                    log.warn("Failed to cache booking ref: {}. Error: {}", booking.getBookingReference(), ex.getMessage());
+                    return reactiveRedisTemplate.delete(BookingCacheService.key(booking))
+                            .then()
+                            .onErrorResume(deleteFailure -> Mono.empty());
+                });
+    }
+
+    private static List<Long> seatIds(List<SeatInventory> seats) {
+        return seats.stream()
+                .map(SeatInventory::getId)
+                .toList();
+    }
+}
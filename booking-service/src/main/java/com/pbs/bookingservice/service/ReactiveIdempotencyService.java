@@ -0,0 +1,145 @@
+package com.pbs.bookingservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pbs.bookingservice.common.ex.IdempotencyConflictException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.pbs.bookingservice.service.IdempotencyService.*;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key}. The first request claims the key with
+ * an in-flight marker and replaces it with its serialized result; a duplicate polls until that
+ * result is there and replays it, or runs the work itself if the first attempt failed and
+ * released the key. A key reused for a request with a different fingerprint is rejected. Keys,
+ * values and the renewal of the in-flight marker while the work runs are those of
+ * {@link IdempotencyService}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveIdempotencyService {
+
+    @Value("${booking.idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Value("${booking.idempotency.in-flight-ttl:PT30S}")
+    private Duration inFlightTtl;
+
+    @Value("${booking.idempotency.poll-interval:PT0.05S}")
+    private Duration pollInterval;
+
+    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param scope       whose key it is, so two users can not see each other's results
+     * @param fingerprint identifies the request body the key was first used with
+     */
+    public <T> Mono<T> execute(String scope, String idempotencyKey, String fingerprint,
+                               Class<T> type, Supplier<Mono<T>> work) {
+        return claim(KEY_PREFIX + scope + SEPARATOR + idempotencyKey, fingerprint, type, work);
+    }
+
+    private <T> Mono<T> claim(String key, String fingerprint, Class<T> type, Supplier<Mono<T>> work) {
+        String marker = inFlightMarker(fingerprint);
+        return reactiveRedisTemplate.opsForValue()
+                .setIfAbsent(key, marker, inFlightTtl)
+                .flatMap(claimed -> claimed
+                        ? run(key, marker, fingerprint, work)
+                        : replay(key, fingerprint, type, work));
+    }
+
+    private <T> Mono<T> run(String key, String marker, String fingerprint, Supplier<Mono<T>> work) {
+        return Mono.using(() -> keepLease(key, marker), lease -> Mono.defer(work), Disposable::dispose)
+                .flatMap(result -> store(key, marker, fingerprint, result).thenReturn(result))
+                .onErrorResume(ex -> release(key, marker).then(Mono.error(ex)));
+    }
+
+    private Disposable keepLease(String key, String marker) {
+        Duration renewInterval = Duration.ofMillis(renewIntervalMillis(inFlightTtl));
+        return Flux.interval(renewInterval, renewInterval)
+                .concatMap(tick -> reactiveRedisTemplate.execute(RENEW_SCRIPT, List.of(key),
+                                List.of(marker, String.valueOf(inFlightTtl.toMillis())))
+                        .next()
+                        .doOnNext(renewed -> {
+                            if (renewed != 1L) {
+                                log.warn("Lost the in-flight marker of idempotency key {} while the request was running", key);
+                            }
+                        })
+                        .onErrorResume(ex -> {
+                            log.warn("Failed to renew idempotency key {}. Error: {}", key, ex.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    private Mono<Boolean> store(String key, String marker, String fingerprint, Object result) {
+        return Mono.fromCallable(() -> COMPLETED + SEPARATOR + fingerprint + SEPARATOR
+                        + objectMapper.writeValueAsString(result))
+                .flatMap(value -> reactiveRedisTemplate.execute(COMPLETE_SCRIPT, List.of(key),
+                        List.of(marker, value, String.valueOf(ttl.toMillis()))).next())
+                .map(stored -> {
+                    if (stored != 1L) {
+                        log.warn("Idempotency key {} was no longer held by this request; its result was not stored", key);
+                    }
+                    return stored == 1L;
+                })
+                .onErrorResume(ex -> {
+                    // the work is done; a duplicate will find the key released and run it again
+                    log.warn("Failed to store the result for idempotency key {}. Error: {}", key, ex.getMessage());
+                    return release(key, marker).thenReturn(false);
+                });
+    }
+
+    private Mono<Void> release(String key, String marker) {
+        return reactiveRedisTemplate.execute(RELEASE_SCRIPT, List.of(key), List.of(marker))
+                .then()
+                .onErrorResume(ex -> {
+                    log.warn("Failed to release idempotency key {}. Error: {}", key, ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private <T> Mono<T> replay(String key, String fingerprint, Class<T> type, Supplier<Mono<T>> work) {
+        long maxPolls = Math.max(1, inFlightTtl.toMillis() / Math.max(1, pollInterval.toMillis()));
+        return reactiveRedisTemplate.opsForValue().get(key)
+                .flatMap(value -> {
+                    String[] parts = value.split(SEPARATOR, 3);
+                    if (parts.length < 2 || !fingerprint.equals(parts[1])) {
+                        return Mono.error(new IdempotencyConflictException(
+                                "Idempotency-Key was already used for a different request"));
+                    }
+                    if (IN_FLIGHT.equals(parts[0])) {
+                        return Mono.error(StillInFlight.INSTANCE);
+                    }
+                    log.debug("Replaying the stored result for idempotency key {}", key);
+                    return Mono.fromCallable(() -> objectMapper.readValue(parts[2], type));
+                })
+                // the first attempt failed and released the key, or its marker expired
+                .switchIfEmpty(Mono.defer(() -> claim(key, fingerprint, type, work)))
+                .retryWhen(Retry.fixedDelay(maxPolls, pollInterval)
+                        .filter(StillInFlight.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> new IdempotencyConflictException(
+                                "A request with this Idempotency-Key is still in progress")));
+    }
+
+    private static final class StillInFlight extends RuntimeException {
+        private static final StillInFlight INSTANCE = new StillInFlight();
+
+        private StillInFlight() {
+            super("Request in flight", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.pbs.bookingservice.service;
+
+import com.pbs.bookingservice.common.event.SeatLockChangedEvent;
+import com.pbs.bookingservice.common.ex.SeatLockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.pbs.bookingservice.service.SeatLockService.*;
+
+/**
+ * Non-blocking counterpart of {@link SeatLockService}: the same Lua scripts and lock keys, run
+ * through {@link ReactiveRedisTemplate} so no thread waits on the Redis round trip. Lock events
+ * are published on the {@code jdbcScheduler}, never on the Redis I/O thread: their listeners take
+ * the seat map's lock, whose holder may be waiting on a reply that only that thread can deliver.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveSeatLockService {
+
+    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingMetrics bookingMetrics;
+    private final Scheduler jdbcScheduler;
+
+    /**
+     * Locks all given seats for the user in a single Redis round trip, or none of them when any
+     * seat is held by another user. Seats are taken in {@link SeatLockService#inLockOrder lock order}.
+     *
+     * @return whether the seats were locked
+     */
+    public Mono<Boolean> lockSeats(Long showId, List<Long> requestedSeatIds, Long userId) {
+        if (showId == null || userId == null || requestedSeatIds == null || requestedSeatIds.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Show ID, seat IDs and User ID are required"));
+        }
+        List<Long> seatIds = inLockOrder(requestedSeatIds);
+        log.debug("Attempting to lock seats {} for showId: {}, user ID: {}", seatIds, showId, userId);
+        Instant lockedUntil = Instant.now().plus(LOCK_TIMEOUT_MINUTES, ChronoUnit.MINUTES);
+        List<String> lockKeys = generateLockKeys(seatIds);
+        return reactiveRedisTemplate.execute(LOCK_SEATS_SCRIPT, lockKeys,
+                        List.of(userId.toString(), String.valueOf(TimeUnit.MINUTES.toMillis(LOCK_TIMEOUT_MINUTES))))
+                .next()
+                .switchIfEmpty(Mono.error(() -> new SeatLockException("No response from Redis while locking seats " + seatIds)))
+                .onErrorMap(ex -> !(ex instanceof SeatLockException), ex -> {
+                    log.error("Failed to lock seats {} for user ID: {}. Error: {}", seatIds, userId, ex.getMessage(), ex);
+                    return new SeatLockException(ex.getMessage(), ex);
+                })
+                .publishOn(jdbcScheduler)
+                .map(result -> {
+                    boolean locked = result == LOCK_ACQUIRED;
+                    bookingMetrics.recordSeatLock(locked);
+                    if (!locked) {
+                        log.warn("Seat lock conflict on key: {} for user ID: {}", lockKeys.get(result.intValue() - 1), userId);
+                        return false;
+                    }
+                    log.info("Successfully locked {} seats for showId: {}, user ID: {} with timeout: {} minutes",
+                            seatIds.size(), showId, userId, LOCK_TIMEOUT_MINUTES);
+                    eventPublisher.publishEvent(new SeatLockChangedEvent(showId, seatIds, lockedUntil));
+                    return true;
+                });
+    }
+
+    /**
+     * Releases the seats still held by the user in a single Redis round trip. Locks that
+     * expired and were taken over by another user are left untouched.
+     */
+    public Mono<Void> unlockSeats(Long showId, Collection<Long> seatIds, Long userId) {
+        if (showId == null || userId == null || seatIds == null) {
+            return Mono.error(new IllegalArgumentException("Show ID, seat IDs and User ID are required"));
+        }
+        if (seatIds.isEmpty()) {
+            return Mono.empty();
+        }
+        log.debug("Attempting to unlock seats {} for showId: {}, user ID: {}", seatIds, showId, userId);
+        List<Long> orderedSeatIds = inLockOrder(seatIds);
+        return reactiveRedisTemplate.execute(UNLOCK_SEATS_SCRIPT, generateLockKeys(orderedSeatIds),
+                        List.of(userId.toString()))
+                .next()
+                .publishOn(jdbcScheduler)
+                .doOnNext(releasedIndexes -> {
+                    List<Long> released = new ArrayList<>();
+                    releasedIndexes.forEach(index -> released.add(orderedSeatIds.get(((Number) index).intValue() - 1)));
+                    log.info("Successfully unlocked {} of {} seats for showId: {}, user ID: {}",
+                            released.size(), seatIds.size(), showId, userId);
+                    if (!released.isEmpty()) {
+                        eventPublisher.publishEvent(new SeatLockChangedEvent(showId, released, null));
+                    }
+                })
+                .onErrorMap(ex -> {
+                    log.error("Failed to unlock seats {} for showId: {}. Error: {}", seatIds, showId, ex.getMessage(), ex);
+                    return new SeatLockException(ex.getMessage(), ex);
+                })
+                .then();
+    }
+}
@@ -0,0 +1,171 @@
+package com.pbs.bookingservice.service;
+
+import com.pbs.bookingservice.common.event.SeatStatusChangedEvent;
+import com.pbs.bookingservice.common.event.ShowUpdatedEvent;
+import com.pbs.bookingservice.common.ex.SeatUnavailableException;
+import com.pbs.bookingservice.entity.enums.SeatStatus;
+import com.pbs.bookingservice.repository.SeatInventoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory, per-show seat availability used to reject already booked seats before the booking
+ * path touches the database or Redis. The database stays the source of truth: a seat reported as
+ * available here is still validated and locked as before.
+ * <p>
+ * Every change to a show's seats or its cached availability bumps the show's generation, inside
+ * the same map operation that applies it. A freshly loaded availability is installed only if the
+ * generation is still the one read before the database query, so a load that raced a change can
+ * not put back the state from before it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatAvailabilityService implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "seat:availability:invalidate";
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+    private static final String MESSAGE_SEPARATOR = ":";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<Long, ShowSeatAvailability> availabilityByShow = new ConcurrentHashMap<>();
+    private final Map<Long, Long> generationByShow = new ConcurrentHashMap<>();
+
+    private final SeatInventoryRepository seatInventoryRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ShowCacheService showCacheService;
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Fails fast when a requested seat is already booked for the show.
+     *
+     * @param ordinals the selection as returned by {@link ShowSeatAvailability#canonicalOrdinals}
+     */
+    public void checkAvailable(ShowSeatAvailability availability, int[] ordinals) {
+        for (int ordinal : ordinals) {
+            if (!availability.isAvailable(ordinal)) {
+                String seatNumber = availability.seatNumberAt(ordinal);
+                log.error("Seat validation failed - Seat {} is not available for showId: {}",
+                        seatNumber, availability.getShowId());
+                throw new SeatUnavailableException("Seat is not available. " + seatNumber);
+            }
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public ShowSeatAvailability getAvailability(Long showId) {
+        ShowSeatAvailability availability = availabilityByShow.get(showId);
+        if (availability != null && availability.getLoadedAt().plus(MAX_AGE).isAfter(Instant.now())) {
+            return availability;
+        }
+        long generation = generationByShow.getOrDefault(showId, 0L);
+        ShowSeatAvailability loaded = load(showId);
+        if (loaded != null) {
+            availabilityByShow.compute(showId, (id, current) ->
+                    generationByShow.getOrDefault(id, 0L) == generation ? loaded : current);
+        }
+        return loaded;
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatStatusChanged(SeatStatusChangedEvent event) {
+        boolean available = SeatStatus.AVAILABLE.equals(event.status());
+        availabilityByShow.compute(event.showId(), (showId, availability) -> {
+            bumpGeneration(showId);
+            if (availability == null) {
+                return null;
+            }
+            for (Long seatId : event.seatIds()) {
+                int ordinal = availability.ordinalOfSeatId(seatId);
+                if (ordinal < 0) {
+                    continue;
+                }
+                if (available) {
+                    availability.markAvailable(ordinal);
+                } else {
+                    availability.markUnavailable(ordinal);
+                }
+            }
+            return availability;
+        });
+        publishInvalidation(event.showId());
+    }
+
+    @EventListener
+    public void onShowUpdated(ShowUpdatedEvent event) {
+        evict(event.showId());
+    }
+
+    public void evict(Long showId) {
+        availabilityByShow.compute(showId, (id, availability) -> {
+            bumpGeneration(id);
+            if (availability != null) {
+                log.debug("Evicted seat availability for showId: {}", id);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        evict(Long.valueOf(body.substring(separator + 1)));
+    }
+
+    private void publishInvalidation(Long showId) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + MESSAGE_SEPARATOR + showId);
+        } catch (Exception ex) {
+            log.warn("Failed to publish seat availability invalidation for showId: {}. Error: {}",
+                    showId, ex.getMessage());
+        }
+    }
+
+    private void bumpGeneration(Long showId) {
+        generationByShow.merge(showId, 1L, Long::sum);
+    }
+
+    private ShowSeatAvailability load(Long showId) {
+        ShowSeatLayout layout = showCacheService.getSeatLayout(showId);
+        if (layout.size() == 0) {
+            return null;
+        }
+        // the layout is cached; only the seats that are no longer available come from the database
+        List<Long> unavailableSeatIds =
+                seatInventoryRepository.findSeatIdsByShowIdAndSeatStatusNot(showId, SeatStatus.AVAILABLE);
+        log.debug("Loaded seat availability for showId: {} with {} seats, {} unavailable",
+                showId, layout.size(), unavailableSeatIds.size());
+        return ShowSeatAvailability.of(layout, unavailableSeatIds);
+    }
+}
@@ -1,11 +1,20 @@
 package com.pbs.bookingservice.service;
 
+import com.pbs.bookingservice.common.event.SeatLockChangedEvent;
 import com.pbs.bookingservice.common.ex.SeatLockException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -13,26 +22,56 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class SeatLockService {
 
-    private static final long LOCK_TIMEOUT_MINUTES = 10;
+    static final long LOCK_TIMEOUT_MINUTES = 10;
     private static final String SEAT_LOCK_KEY_PATTERN = "seat:lock:%d";
+    static final long LOCK_ACQUIRED = 0L;
+
+    static final RedisScript<Long> LOCK_SEATS_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/lock_seats.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> UNLOCK_SEATS_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/unlock_seats.lua"), List.class);
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> SEAT_LOCK_TTLS_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/seat_lock_ttls.lua"), List.class);
 
     private final RedisTemplate<String, String> redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingMetrics bookingMetrics;
 
     public boolean lockSeat(Long id, Long userId) {
         if (id == null || userId == null) {
             throw new IllegalArgumentException("Seat ID and User ID cannot be null");
         }
         log.debug("Attempting to lock seat with ID: {} for user ID: {}", id, userId);
-        try {
-            String lockKey = generateLockKey(id);
-            redisTemplate.opsForValue().set(lockKey, userId.toString(), LOCK_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+        boolean locked = executeLock(List.of(id), userId);
+        if (locked) {
             log.info("Successfully locked seat ID: {} for user ID: {} with timeout: {} minutes",
                     id, userId, LOCK_TIMEOUT_MINUTES);
-            return true;
-        } catch (Exception ex) {
-            log.error("Failed to lock seat ID: {} for user ID: {}. Error: {}", id, userId, ex.getMessage(), ex);
-            throw new SeatLockException(ex.getMessage(), ex);
         }
+        return locked;
+    }
+
+    /**
+     * Locks all given seats for the user in a single Redis round trip. Either every seat is
+     * locked (or re-locked, if the user already holds it) or none is, when any seat is held
+     * by another user. Seats are taken in {@link #inLockOrder lock order}.
+     */
+    public boolean lockSeats(Long showId, List<Long> requestedSeatIds, Long userId) {
+        if (showId == null || userId == null || requestedSeatIds == null || requestedSeatIds.isEmpty()) {
+            throw new IllegalArgumentException("Show ID, seat IDs and User ID are required");
+        }
+        List<Long> seatIds = inLockOrder(requestedSeatIds);
+        log.debug("Attempting to lock seats {} for showId: {}, user ID: {}", seatIds, showId, userId);
+        Instant lockedUntil = Instant.now().plus(LOCK_TIMEOUT_MINUTES, ChronoUnit.MINUTES);
+        boolean locked = executeLock(seatIds, userId);
+        bookingMetrics.recordSeatLock(locked);
+        if (locked) {
+            log.info("Successfully locked {} seats for showId: {}, user ID: {} with timeout: {} minutes",
+                    seatIds.size(), showId, userId, LOCK_TIMEOUT_MINUTES);
+            eventPublisher.publishEvent(new SeatLockChangedEvent(showId, seatIds, lockedUntil));
+        }
+        return locked;
     }
 
     public void unlockSeat(Long id) {
@@ -50,7 +89,99 @@ public class SeatLockService {
         }
     }
 
-    private String generateLockKey(Long seatId) {
+    /**
+     * Releases the seats still held by the user in a single Redis round trip. Locks that
+     * expired and were taken over by another user are left untouched.
+     */
+    public void unlockSeats(Long showId, Collection<Long> seatIds, Long userId) {
+        if (showId == null || userId == null || seatIds == null) {
+            throw new IllegalArgumentException("Show ID, seat IDs and User ID are required");
+        }
+        if (seatIds.isEmpty()) {
+            return;
+        }
+        log.debug("Attempting to unlock seats {} for showId: {}, user ID: {}", seatIds, showId, userId);
+        List<Long> orderedSeatIds = inLockOrder(seatIds);
+        try {
+            List<?> releasedIndexes = redisTemplate.execute(UNLOCK_SEATS_SCRIPT, generateLockKeys(orderedSeatIds),
+                    userId.toString());
+            List<Long> released = new ArrayList<>();
+            if (releasedIndexes != null) {
+                releasedIndexes.forEach(index -> released.add(orderedSeatIds.get(((Number) index).intValue() - 1)));
+            }
+            log.info("Successfully unlocked {} of {} seats for showId: {}, user ID: {}",
+                    released.size(), seatIds.size(), showId, userId);
+            if (!released.isEmpty()) {
+                eventPublisher.publishEvent(new SeatLockChangedEvent(showId, released, null));
+            }
+        } catch (Exception ex) {
+            log.error("Failed to unlock seats {} for showId: {}. Error: {}", seatIds, showId, ex.getMessage(), ex);
+            throw new SeatLockException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Reads the remaining lock time of every seat in one round trip.
+     *
+     * @return milliseconds left per seat, in the order of {@code seatIds}; zero or less when unlocked
+     */
+    public long[] getLockTtls(List<Long> seatIds) {
+        long[] ttls = new long[seatIds.size()];
+        if (seatIds.isEmpty()) {
+            return ttls;
+        }
+        try {
+            List<?> result = redisTemplate.execute(SEAT_LOCK_TTLS_SCRIPT, generateLockKeys(seatIds));
+            for (int i = 0; result != null && i < result.size(); i++) {
+                ttls[i] = ((Number) result.get(i)).longValue();
+            }
+            return ttls;
+        } catch (Exception ex) {
+            log.error("Failed to read seat lock TTLs for {} seats. Error: {}", seatIds.size(), ex.getMessage(), ex);
+            throw new SeatLockException(ex.getMessage(), ex);
+        }
+    }
+
+    private boolean executeLock(Collection<Long> seatIds, Long userId) {
+        List<String> lockKeys = generateLockKeys(seatIds);
+        Long result;
+        try {
+            result = redisTemplate.execute(LOCK_SEATS_SCRIPT, lockKeys, userId.toString(),
+                    String.valueOf(TimeUnit.MINUTES.toMillis(LOCK_TIMEOUT_MINUTES)));
+        } catch (Exception ex) {
+            log.error("Failed to lock seats {} for user ID: {}. Error: {}", seatIds, userId, ex.getMessage(), ex);
+            throw new SeatLockException(ex.getMessage(), ex);
+        }
+        if (result == null) {
+            throw new SeatLockException("No response from Redis while locking seats " + seatIds);
+        }
+        if (result != LOCK_ACQUIRED) {
+            log.warn("Seat lock conflict on key: {} for user ID: {}", lockKeys.get(result.intValue() - 1), userId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The global order seats are locked and claimed in: ascending seat inventory id, without
+     * duplicates. Redis locks, seat row claims and the show counter update all follow it (see
+     * {@code SeatInventoryRepository#claimSeats}), so two bookings with overlapping seats meet on
+     * their lowest shared seat and one of them wins, instead of each holding a seat the other needs.
+     */
+    public static List<Long> inLockOrder(Collection<Long> seatIds) {
+        return seatIds.stream()
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    static List<String> generateLockKeys(Collection<Long> seatIds) {
+        return seatIds.stream()
+                .map(SeatLockService::generateLockKey)
+                .toList();
+    }
+
+    static String generateLockKey(Long seatId) {
         return String.format(SEAT_LOCK_KEY_PATTERN, seatId);
     }
 }
@@ -0,0 +1,279 @@
+package com.pbs.bookingservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pbs.bookingservice.common.event.SeatLockChangedEvent;
+import com.pbs.bookingservice.common.event.SeatMapChangedEvent;
+import com.pbs.bookingservice.common.event.SeatStatusChangedEvent;
+import com.pbs.bookingservice.common.ex.BookingException;
+import com.pbs.bookingservice.common.ex.ShowNotFoundException;
+import com.pbs.bookingservice.common.resp.SeatMapDelta;
+import com.pbs.bookingservice.common.resp.SeatMapResponse;
+import com.pbs.bookingservice.common.resp.SeatMapSeat;
+import com.pbs.bookingservice.common.resp.SeatMapStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves per-show seat maps from a cached, versioned snapshot. Booked seats come from
+ * {@link SeatAvailabilityService}, locked seats from the {@code seat:lock:*} TTLs. Local lock and
+ * status changes are applied incrementally; locks taken on other nodes are picked up by
+ * re-reading the TTLs at most once per {@link #LOCK_SYNC_INTERVAL_MS}. Every change is also
+ * published as a {@link SeatMapChangedEvent} with the seats whose status moved.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatMapService {
+
+    private static final long LOCK_SYNC_INTERVAL_MS = 1000;
+
+    private final Map<Long, ShowSeatMap> seatMaps = new ConcurrentHashMap<>();
+
+    private final SeatAvailabilityService seatAvailabilityService;
+    private final SeatLockService seatLockService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SeatMapSnapshot getSnapshot(Long showId) {
+        ShowSeatAvailability availability = seatAvailabilityService.getAvailability(showId);
+        if (availability == null) {
+            log.error("Seat map requested for unknown showId: {}", showId);
+            throw new ShowNotFoundException("Show not found: " + showId);
+        }
+        ShowSeatMap seatMap = seatMaps.computeIfAbsent(showId, ShowSeatMap::new);
+        SeatMapSnapshot snapshot = seatMap.snapshot;
+        if (snapshot != null && seatMap.isCurrent(availability, System.currentTimeMillis())) {
+            return snapshot;
+        }
+        return refresh(seatMap, availability);
+    }
+
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatStatusChanged(SeatStatusChangedEvent event) {
+        ShowSeatMap seatMap = seatMaps.get(event.showId());
+        if (seatMap == null) {
+            return;
+        }
+        seatMap.lock.lock();
+        try {
+            if (seatMap.availability == null) {
+                return;
+            }
+            seatMap.markChanged();
+            publishChanges(seatMap, System.currentTimeMillis());
+        } finally {
+            seatMap.lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatLockChanged(SeatLockChangedEvent event) {
+        ShowSeatMap seatMap = seatMaps.get(event.showId());
+        if (seatMap == null) {
+            return;
+        }
+        long lockedUntil = event.lockedUntil() != null ? event.lockedUntil().toEpochMilli() : 0L;
+        seatMap.lock.lock();
+        try {
+            if (seatMap.availability == null) {
+                return;
+            }
+            long lockEvent = ++seatMap.lockEvents;
+            for (Long seatId : event.seatIds()) {
+                int ordinal = seatMap.availability.ordinalOfSeatId(seatId);
+                if (ordinal >= 0) {
+                    seatMap.lockExpiresAt[ordinal] = lockedUntil;
+                    seatMap.lockEventAt[ordinal] = lockEvent;
+                }
+            }
+            seatMap.nextLockExpiry = Math.min(seatMap.nextLockExpiry, lockedUntil > 0 ? lockedUntil : Long.MAX_VALUE);
+            seatMap.markChanged();
+            publishChanges(seatMap, System.currentTimeMillis());
+        } finally {
+            seatMap.lock.unlock();
+        }
+    }
+
+    private SeatMapSnapshot refresh(ShowSeatMap seatMap, ShowSeatAvailability availability) {
+        // The lock TTLs are read before taking the seat map's lock: a lock event delivered on the
+        // Redis I/O thread must never wait behind a Redis round trip.
+        long fetchedAt = System.currentTimeMillis();
+        long lockEventsBefore = seatMap.lockEvents;
+        long[] ttls = seatMap.availability != availability || fetchedAt - seatMap.locksSyncedAt >= LOCK_SYNC_INTERVAL_MS
+                ? fetchLockTtls(availability)
+                : null;
+        seatMap.lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            if (seatMap.availability != availability) {
+                seatMap.availability = availability;
+                seatMap.lockExpiresAt = new long[availability.size()];
+                seatMap.lockEventAt = new long[availability.size()];
+                seatMap.locksSyncedAt = 0L;
+                seatMap.markChanged();
+            }
+            // without TTLs (another refresh synced in between) the next due refresh reads them
+            if (ttls != null && fetchedAt > seatMap.locksSyncedAt) {
+                applyLockTtls(seatMap, ttls, fetchedAt, lockEventsBefore);
+            }
+            if (now >= seatMap.nextLockExpiry) {
+                expireLocks(seatMap, now);
+            }
+            if (seatMap.snapshot == null) {
+                publishChanges(seatMap, now);
+                seatMap.snapshot = buildSnapshot(seatMap, now);
+                log.debug("Rebuilt seat map for showId: {} at version: {}", seatMap.showId, seatMap.version);
+            }
+            return seatMap.snapshot;
+        } finally {
+            seatMap.lock.unlock();
+        }
+    }
+
+    private long[] fetchLockTtls(ShowSeatAvailability availability) {
+        List<Long> seatIds = new ArrayList<>(availability.size());
+        for (int ordinal = 0; ordinal < availability.size(); ordinal++) {
+            seatIds.add(availability.seatIdAt(ordinal));
+        }
+        return seatLockService.getLockTtls(seatIds);
+    }
+
+    /**
+     * @param ttls             read at {@code now} for the seat map's current availability
+     * @param lockEventsBefore lock events applied before the read; seats a later event touched
+     *                         keep that event's state, which is newer than the read
+     */
+    private void applyLockTtls(ShowSeatMap seatMap, long[] ttls, long now, long lockEventsBefore) {
+        boolean changed = false;
+        long nextExpiry = Long.MAX_VALUE;
+        for (int ordinal = 0; ordinal < ttls.length; ordinal++) {
+            long expiresAt = seatMap.lockEventAt[ordinal] > lockEventsBefore
+                    ? seatMap.lockExpiresAt[ordinal]
+                    : ttls[ordinal] > 0 ? now + ttls[ordinal] : 0L;
+            changed |= (seatMap.lockExpiresAt[ordinal] > now) != (expiresAt > 0);
+            seatMap.lockExpiresAt[ordinal] = expiresAt;
+            if (expiresAt > 0) {
+                nextExpiry = Math.min(nextExpiry, expiresAt);
+            }
+        }
+        seatMap.nextLockExpiry = nextExpiry;
+        seatMap.locksSyncedAt = now;
+        if (changed) {
+            seatMap.markChanged();
+        }
+    }
+
+    private void expireLocks(ShowSeatMap seatMap, long now) {
+        long nextExpiry = Long.MAX_VALUE;
+        for (int ordinal = 0; ordinal < seatMap.lockExpiresAt.length; ordinal++) {
+            long expiresAt = seatMap.lockExpiresAt[ordinal];
+            if (expiresAt > 0 && expiresAt <= now) {
+                seatMap.lockExpiresAt[ordinal] = 0L;
+            } else if (expiresAt > 0) {
+                nextExpiry = Math.min(nextExpiry, expiresAt);
+            }
+        }
+        seatMap.nextLockExpiry = nextExpiry;
+        seatMap.markChanged();
+    }
+
+    private void publishChanges(ShowSeatMap seatMap, long now) {
+        ShowSeatAvailability availability = seatMap.availability;
+        if (seatMap.published.length != availability.size()) {
+            seatMap.published = new SeatMapStatus[availability.size()];
+            for (int ordinal = 0; ordinal < availability.size(); ordinal++) {
+                seatMap.published[ordinal] = statusOf(seatMap, ordinal, now);
+            }
+            return;
+        }
+        List<SeatMapDelta> deltas = new ArrayList<>();
+        for (int ordinal = 0; ordinal < availability.size(); ordinal++) {
+            SeatMapStatus status = statusOf(seatMap, ordinal, now);
+            if (status != seatMap.published[ordinal]) {
+                seatMap.published[ordinal] = status;
+                deltas.add(new SeatMapDelta(ordinal, status, seatMap.version));
+            }
+        }
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(new SeatMapChangedEvent(seatMap.showId, deltas));
+        }
+    }
+
+    private SeatMapSnapshot buildSnapshot(ShowSeatMap seatMap, long now) {
+        ShowSeatAvailability availability = seatMap.availability;
+        List<SeatMapSeat> seats = new ArrayList<>(availability.size());
+        for (int ordinal = 0; ordinal < availability.size(); ordinal++) {
+            SeatMapStatus status = statusOf(seatMap, ordinal, now);
+            seats.add(new SeatMapSeat(ordinal, availability.seatNumberAt(ordinal), availability.priceAt(ordinal), status));
+        }
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(new SeatMapResponse(seatMap.showId, seats));
+            return new SeatMapSnapshot(seatMap.showId, seatMap.version, eTagOf(seatMap.showId, body), body);
+        } catch (JsonProcessingException e) {
+            throw new BookingException("Failed to serialize seat map for showId: " + seatMap.showId, e);
+        }
+    }
+
+    // a strong validator has to change whenever any byte of the body does
+    private static String eTagOf(Long showId, byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + showId + "-" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private SeatMapStatus statusOf(ShowSeatMap seatMap, int ordinal, long now) {
+        if (!seatMap.availability.isAvailable(ordinal)) {
+            return SeatMapStatus.BOOKED;
+        }
+        return seatMap.lockExpiresAt[ordinal] > now ? SeatMapStatus.LOCKED : SeatMapStatus.AVAILABLE;
+    }
+
+    private static final class ShowSeatMap {
+        private final Long showId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile ShowSeatAvailability availability;
+        private long[] lockExpiresAt = new long[0];
+        // the lock event that last set each seat's entry in lockExpiresAt
+        private long[] lockEventAt = new long[0];
+        private volatile long lockEvents;
+        private SeatMapStatus[] published = new SeatMapStatus[0];
+        // orders this node's snapshot and deltas within one stream; not comparable across nodes
+        private long version;
+        private volatile long locksSyncedAt;
+        private volatile long nextLockExpiry = Long.MAX_VALUE;
+        private volatile SeatMapSnapshot snapshot;
+
+        private ShowSeatMap(Long showId) {
+            this.showId = showId;
+        }
+
+        private boolean isCurrent(ShowSeatAvailability current, long now) {
+            return availability == current
+                    && now < nextLockExpiry
+                    && now - locksSyncedAt < LOCK_SYNC_INTERVAL_MS;
+        }
+
+        private void markChanged() {
+            version++;
+            snapshot = null;
+        }
+    }
+}
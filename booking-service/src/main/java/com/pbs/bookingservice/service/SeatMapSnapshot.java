@@ -0,0 +1,10 @@
+package com.pbs.bookingservice.service;
+
+/**
+ * Serialized seat map of a show at one version. {@code eTag} is a SHA-256 of {@code body}, so two
+ * snapshots share a tag only if they are byte for byte the same response. The body does not carry
+ * {@code version}, a counter local to this node, so the same seat state has the same tag on every
+ * node; the version only orders a stream's snapshot and deltas.
+ */
+public record SeatMapSnapshot(Long showId, long version, String eTag, byte[] body) {
+}
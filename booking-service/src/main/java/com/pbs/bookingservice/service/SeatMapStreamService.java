@@ -0,0 +1,230 @@
+package com.pbs.bookingservice.service;
+
+import com.pbs.bookingservice.common.event.SeatMapChangedEvent;
+import com.pbs.bookingservice.common.ex.ShowNotFoundException;
+import com.pbs.bookingservice.common.resp.SeatMapDelta;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans seat map deltas out to Server-Sent Event subscribers. Each subscriber keeps at most one
+ * pending delta per seat: while a slow client is still being written to, newer deltas replace
+ * older ones instead of queueing, so memory per subscriber is bounded by the show's seat count.
+ * Writes run on virtual threads, one drain task per subscriber at a time.
+ * <p>
+ * A subscriber is registered before its snapshot is read, so no change in between is missed, and
+ * the snapshot goes out through the subscriber's own drain ahead of any delta; deltas the snapshot
+ * already contains are dropped. Streams with nothing to send get a heartbeat event so proxies and
+ * clients can tell an idle stream from a dead one.
+ * <p>
+ * Versions (the snapshot's event id and each delta's {@code version}) are those of the node that
+ * serves the stream and only order events within it; a client that reconnects, possibly to another
+ * node, starts over from the new snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatMapStreamService {
+
+    private static final long EMITTER_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long REFRESH_INTERVAL_MS = 1000;
+    private static final long HEARTBEAT_INTERVAL_MS = TimeUnit.SECONDS.toMillis(15);
+    private static final String EVENT_SNAPSHOT = "snapshot";
+    private static final String EVENT_DELTA = "delta";
+    private static final String EVENT_HEARTBEAT = "heartbeat";
+
+    private final Map<Long, Set<Subscriber>> subscribersByShow = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("seat-map-refresher").daemon().factory());
+
+    private final SeatMapService seatMapService;
+
+    @PostConstruct
+    void start() {
+        refresher.scheduleWithFixedDelay(this::refreshSubscribedShows,
+                REFRESH_INTERVAL_MS, REFRESH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        refresher.scheduleWithFixedDelay(this::sendHeartbeats,
+                HEARTBEAT_INTERVAL_MS, HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+        senders.shutdownNow();
+        subscribersByShow.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+    }
+
+    public SseEmitter subscribe(Long showId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        // starts out draining, so deltas only queue up until the snapshot is in place
+        Subscriber subscriber = new Subscriber(showId, emitter);
+        Set<Subscriber> subscribers = subscribersByShow.computeIfAbsent(showId, id -> ConcurrentHashMap.newKeySet());
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(ex -> unsubscribe(subscriber));
+        SeatMapSnapshot snapshot;
+        try {
+            snapshot = seatMapService.getSnapshot(showId);
+        } catch (RuntimeException ex) {
+            unsubscribe(subscriber);
+            throw ex;
+        }
+        subscriber.snapshotVersion = snapshot.version();
+        subscriber.snapshot = snapshot;
+        senders.execute(() -> drain(subscriber));
+        log.debug("Seat map subscriber added for showId: {}, subscribers: {}", showId, subscribers.size());
+        return emitter;
+    }
+
+    @EventListener
+    public void onSeatMapChanged(SeatMapChangedEvent event) {
+        Set<Subscriber> subscribers = subscribersByShow.get(event.showId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            for (SeatMapDelta delta : event.deltas()) {
+                subscriber.pending.merge(delta.ordinal(), delta,
+                        (current, next) -> next.version() >= current.version() ? next : current);
+            }
+            if (subscriber.draining.compareAndSet(false, true)) {
+                senders.execute(() -> drain(subscriber));
+            }
+        }
+    }
+
+    public int getSubscriberCount(Long showId) {
+        Set<Subscriber> subscribers = subscribersByShow.get(showId);
+        return subscribers != null ? subscribers.size() : 0;
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            SeatMapSnapshot snapshot = subscriber.snapshot;
+            if (snapshot != null) {
+                subscriber.snapshot = null;
+                if (!send(subscriber, SseEmitter.event()
+                        .name(EVENT_SNAPSHOT)
+                        .id(String.valueOf(snapshot.version()))
+                        .data(new String(snapshot.body(), StandardCharsets.UTF_8), MediaType.APPLICATION_JSON))) {
+                    return;
+                }
+                subscriber.lastVersion = snapshot.version();
+            }
+            List<SeatMapDelta> deltas = new ArrayList<>(subscriber.pending.size());
+            for (Integer ordinal : subscriber.pending.keySet()) {
+                SeatMapDelta delta = subscriber.pending.remove(ordinal);
+                // the snapshot already shows this change
+                if (delta != null && delta.version() > subscriber.snapshotVersion) {
+                    deltas.add(delta);
+                }
+            }
+            if (!deltas.isEmpty()) {
+                long version = deltas.stream().mapToLong(SeatMapDelta::version).max().orElse(0L);
+                if (!send(subscriber, SseEmitter.event()
+                        .name(EVENT_DELTA)
+                        .id(String.valueOf(version))
+                        .data(deltas, MediaType.APPLICATION_JSON))) {
+                    return;
+                }
+                subscriber.lastVersion = Math.max(subscriber.lastVersion, version);
+            } else if (subscriber.heartbeatDue && !send(subscriber, SseEmitter.event()
+                    .name(EVENT_HEARTBEAT)
+                    .data(subscriber.lastVersion))) {
+                return;
+            }
+            subscriber.heartbeatDue = false;
+            subscriber.draining.set(false);
+        } while ((!subscriber.pending.isEmpty() || subscriber.heartbeatDue)
+                && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+            subscriber.lastSentNanos = System.nanoTime();
+            return true;
+        } catch (Exception ex) {
+            log.debug("Dropping seat map subscriber for showId: {}. Error: {}", subscriber.showId, ex.getMessage());
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(ex);
+            return false;
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribersByShow.computeIfPresent(subscriber.showId, (showId, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private void refreshSubscribedShows() {
+        for (Long showId : subscribersByShow.keySet()) {
+            try {
+                seatMapService.getSnapshot(showId);
+            } catch (ShowNotFoundException ex) {
+                log.warn("Closing seat map subscribers of removed showId: {}", showId);
+                Set<Subscriber> subscribers = subscribersByShow.remove(showId);
+                if (subscribers != null) {
+                    subscribers.forEach(subscriber -> subscriber.emitter.complete());
+                }
+            } catch (Exception ex) {
+                log.warn("Failed to refresh seat map for showId: {}. Error: {}", showId, ex.getMessage());
+            }
+        }
+    }
+
+    // heartbeats go through the drain as well, so they never interleave with a snapshot or delta write
+    private void sendHeartbeats() {
+        long idleSince = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(HEARTBEAT_INTERVAL_MS);
+        for (Set<Subscriber> subscribers : subscribersByShow.values()) {
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.lastSentNanos - idleSince > 0) {
+                    continue;
+                }
+                subscriber.heartbeatDue = true;
+                if (subscriber.draining.compareAndSet(false, true)) {
+                    senders.execute(() -> drain(subscriber));
+                }
+            }
+        }
+    }
+
+    private static final class Subscriber {
+        private final Long showId;
+        private final SseEmitter emitter;
+        private final Map<Integer, SeatMapDelta> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean(true);
+        private volatile SeatMapSnapshot snapshot;
+        private volatile long snapshotVersion;
+        private volatile long lastVersion;
+        private volatile long lastSentNanos = System.nanoTime();
+        private volatile boolean heartbeatDue;
+
+        private Subscriber(Long showId, SseEmitter emitter) {
+            this.showId = showId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package com.pbs.bookingservice.service;
+
+import com.pbs.bookingservice.common.ex.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Admission gate in front of the booking path, per show. A show runs at most
+ * {@code max-concurrent-per-show} bookings at a time and all shows together at most
+ * {@code max-concurrent}, of which {@code reserved-for-quiet-shows} are only handed to shows with
+ * nothing running, so a hot show can never take the capacity every other show depends on.
+ * <p>
+ * A request that finds a free slot and nobody waiting goes straight through. Otherwise it gets a
+ * ticket in the show's FIFO waiting room and waits up to {@code max-wait}; if its turn has not
+ * come by then it is rejected with its ticket and position, and a retry with that ticket keeps
+ * its place. Tickets not seen for {@code ticket-ttl} are dropped. Limits can be changed at runtime
+ * (see {@code AdmissionEndpoint}).
+ */
+@Service
+@Slf4j
+public class ShowAdmissionService {
+
+    public static final String QUEUE_TICKET_HEADER = "X-Queue-Ticket";
+
+    // a waiter blocked on the global limit is woken by its own show only, so it re-checks this often
+    private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Map<Long, ShowGate> gates = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> showLimits = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private volatile Limits limits;
+
+    private final Counter admittedCounter;
+    private final Counter queuedCounter;
+    private final Counter rejectedCounter;
+
+    public ShowAdmissionService(MeterRegistry meterRegistry,
+                                @Value("${booking.admission.max-concurrent:10}") int maxConcurrent,
+                                @Value("${booking.admission.max-concurrent-per-show:4}") int maxConcurrentPerShow,
+                                @Value("${booking.admission.reserved-for-quiet-shows:2}") int reservedForQuietShows,
+                                @Value("${booking.admission.max-queue-per-show:5000}") int maxQueuePerShow,
+                                @Value("${booking.admission.max-wait:PT2S}") Duration maxWait,
+                                @Value("${booking.admission.retry-after:PT1S}") Duration retryAfter,
+                                @Value("${booking.admission.ticket-ttl:PT30S}") Duration ticketTtl) {
+        this.limits = new Limits(maxConcurrent, maxConcurrentPerShow, reservedForQuietShows, maxQueuePerShow,
+                maxWait, retryAfter, ticketTtl);
+        this.admittedCounter = outcomeCounter(meterRegistry, "admitted");
+        this.queuedCounter = outcomeCounter(meterRegistry, "queued");
+        this.rejectedCounter = outcomeCounter(meterRegistry, "rejected");
+        Gauge.builder("booking.admission.running", running, AtomicInteger::get)
+                .description("Booking requests admitted and not yet finished, all shows")
+                .register(meterRegistry);
+        Gauge.builder("booking.admission.waiting", this, ShowAdmissionService::waiting)
+                .description("Tickets in the waiting rooms of all shows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a booking request for the show, waiting up to {@code max-wait} for its turn.
+     *
+     * @param ticket the ticket of an earlier rejection for this show, or null
+     * @throws AdmissionRejectedException when the request was not admitted in time
+     */
+    public Permit admit(Long showId, String ticket) {
+        return admit(showId, ticket, limits.maxWait().toNanos());
+    }
+
+    /**
+     * {@link #admit} without waiting, for callers that must not block.
+     */
+    public Permit tryAdmit(Long showId, String ticket) {
+        return admit(showId, ticket, 0);
+    }
+
+    /**
+     * {@link #admit} for reactive callers: the request waits in the same line as blocking ones,
+     * without a thread, and the release that frees its turn completes it.
+     */
+    public Mono<Permit> admitNonBlocking(Long showId, String ticket) {
+        return Mono.defer(() -> {
+            Waiter waiter = withGate(showId, gate -> gate.admitLater(ticket));
+            if (waiter.ticket == null) {
+                return Mono.fromFuture(waiter.permit);
+            }
+            Disposable timeout = Schedulers.parallel().schedule(() -> waiter.gate.expire(waiter),
+                    limits.maxWait().toNanos(), TimeUnit.NANOSECONDS);
+            waiter.permit.whenComplete((permit, ex) -> timeout.dispose());
+            return Mono.fromFuture(waiter.permit, true)
+                    .doOnCancel(() -> waiter.gate.cancel(waiter));
+        });
+    }
+
+    public Limits getLimits() {
+        return limits;
+    }
+
+    public void setLimits(Limits limits) {
+        log.info("Admission limits changed from {} to {}", this.limits, limits);
+        this.limits = limits;
+        gates.values().forEach(ShowGate::wakeUp);
+    }
+
+    public Map<Long, Integer> getShowLimits() {
+        return Map.copyOf(showLimits);
+    }
+
+    /**
+     * Overrides {@code max-concurrent-per-show} for one show; null restores the default.
+     */
+    public void setShowLimit(Long showId, Integer maxConcurrent) {
+        if (maxConcurrent == null) {
+            showLimits.remove(showId);
+        } else if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        } else {
+            showLimits.put(showId, maxConcurrent);
+        }
+        log.info("Admission limit of showId: {} set to {}", showId, maxConcurrent);
+        ShowGate gate = gates.get(showId);
+        if (gate != null) {
+            gate.wakeUp();
+        }
+    }
+
+    public int getRunning() {
+        return running.get();
+    }
+
+    /**
+     * Shows currently running bookings or holding tickets.
+     */
+    public List<ShowAdmission> getShows() {
+        List<ShowAdmission> shows = new ArrayList<>();
+        for (ShowGate gate : gates.values()) {
+            gate.lock.lock();
+            try {
+                shows.add(new ShowAdmission(gate.showId, gate.running, gate.queue.size(), showLimit(gate.showId)));
+            } finally {
+                gate.lock.unlock();
+            }
+        }
+        return shows;
+    }
+
+    private Permit admit(Long showId, String ticket, long waitNanos) {
+        long deadline = System.nanoTime() + waitNanos;
+        return withGate(showId, gate -> gate.admit(ticket, deadline));
+    }
+
+    private <T> T withGate(Long showId, Function<ShowGate, T> action) {
+        while (true) {
+            ShowGate gate = gates.computeIfAbsent(showId, ShowGate::new);
+            gate.lock.lock();
+            try {
+                // an idle gate is dropped from the map; start over with its replacement
+                if (!gate.retired) {
+                    return action.apply(gate);
+                }
+            } finally {
+                gate.lock.unlock();
+            }
+        }
+    }
+
+    private boolean tryAcquireGlobal(boolean quietShow) {
+        Limits current = limits;
+        int limit = quietShow ? current.maxConcurrent() : current.maxConcurrent() - current.reservedForQuietShows();
+        while (true) {
+            int n = running.get();
+            if (n >= limit) {
+                return false;
+            }
+            if (running.compareAndSet(n, n + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private int showLimit(Long showId) {
+        return showLimits.getOrDefault(showId, limits.maxConcurrentPerShow());
+    }
+
+    private int waiting() {
+        int waiting = 0;
+        for (ShowGate gate : gates.values()) {
+            waiting += gate.queue.size();
+        }
+        return waiting;
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("booking.admission")
+                .description("Booking requests by admission outcome; queued requests are counted again when admitted or rejected")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param reservedForQuietShows global slots only a show with nothing running may take
+     */
+    public record Limits(int maxConcurrent, int maxConcurrentPerShow, int reservedForQuietShows,
+                         int maxQueuePerShow, Duration maxWait, Duration retryAfter, Duration ticketTtl) {
+        public Limits {
+            if (maxConcurrent < 1 || maxConcurrentPerShow < 1 || reservedForQuietShows < 0 || maxQueuePerShow < 0) {
+                throw new IllegalArgumentException("Admission limits must be positive");
+            }
+            if (reservedForQuietShows >= maxConcurrent) {
+                throw new IllegalArgumentException("reservedForQuietShows must be less than maxConcurrent");
+            }
+            if (maxWait.isNegative() || retryAfter.isNegative() || ticketTtl.compareTo(retryAfter) <= 0) {
+                throw new IllegalArgumentException("ticketTtl must be longer than retryAfter");
+            }
+        }
+    }
+
+    public record ShowAdmission(Long showId, int running, int waiting, int maxConcurrent) {
+    }
+
+    /**
+     * A slot held by an admitted request; closing it lets the next one in.
+     */
+    public final class Permit implements AutoCloseable {
+        private final ShowGate gate;
+        private boolean released;
+
+        private Permit(ShowGate gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            Limits current = limits;
+            boolean globalWasFull = running.getAndDecrement() >= current.maxConcurrent() - current.reservedForQuietShows();
+            gate.release();
+            // waiters of other shows may have been held by the global limit only
+            if (globalWasFull) {
+                gates.values().forEach(other -> {
+                    if (other != gate) {
+                        other.wakeUp();
+                    }
+                });
+            }
+        }
+    }
+
+    private static final class Ticket {
+        private final long number;
+        private final String token;
+        private long lastSeenNanos;
+
+        private Ticket(long number, String token) {
+            this.number = number;
+            this.token = token;
+        }
+    }
+
+    /**
+     * A request present in a waiting room: a blocking one waits on the gate's condition, a
+     * reactive one ({@code permit} set) is completed by whoever frees its turn.
+     */
+    private static final class Waiter {
+        private final ShowGate gate;
+        private final Ticket ticket;
+        private final CompletableFuture<Permit> permit;
+
+        private Waiter(ShowGate gate, Ticket ticket, CompletableFuture<Permit> permit) {
+            this.gate = gate;
+            this.ticket = ticket;
+            this.permit = permit;
+        }
+    }
+
+    private final class ShowGate {
+        private final Long showId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition turn = lock.newCondition();
+        // every ticket in line, and the ones whose request is waiting right now
+        private final TreeMap<Long, Ticket> queue = new TreeMap<>();
+        private final Map<String, Ticket> tickets = new HashMap<>();
+        private final TreeMap<Long, Waiter> present = new TreeMap<>();
+        private long nextTicket;
+        private int running;
+        private boolean retired;
+
+        private ShowGate(Long showId) {
+            this.showId = showId;
+        }
+
+        // called with the lock held
+        private Permit admit(String token, long deadline) {
+            Ticket ticket = ticketFor(token);
+            if (ticket == null) {
+                return new Permit(this);
+            }
+            Waiter waiter = new Waiter(this, ticket, null);
+            present.put(ticket.number, waiter);
+            try {
+                while (true) {
+                    ticket.lastSeenNanos = System.nanoTime();
+                    // tickets ahead whose requests are away do not hold up the ones waiting here
+                    if (present.firstKey() == ticket.number && tryStart()) {
+                        present.remove(ticket.number);
+                        remove(ticket);
+                        admittedCounter.increment();
+                        handOff();
+                        return new Permit(this);
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        rejectedCounter.increment();
+                        throw busy(ticket);
+                    }
+                    turn.awaitNanos(Math.min(remaining, WAIT_SLICE_NANOS));
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new AdmissionRejectedException("Interrupted while waiting for admission to show " + showId,
+                        ticket.token, position(ticket), limits.retryAfter());
+            } finally {
+                if (present.remove(ticket.number, waiter)) {
+                    handOff();
+                }
+            }
+        }
+
+        // called with the lock held; the waiter's permit is already complete if it went straight in
+        private Waiter admitLater(String token) {
+            Ticket ticket = ticketFor(token);
+            if (ticket == null) {
+                return new Waiter(this, null, CompletableFuture.completedFuture(new Permit(this)));
+            }
+            Waiter waiter = new Waiter(this, ticket, new CompletableFuture<>());
+            ticket.lastSeenNanos = System.nanoTime();
+            present.put(ticket.number, waiter);
+            handOff();
+            return waiter;
+        }
+
+        /**
+         * Admits a new request straight away when nobody is in line and a slot is free, returning
+         * null; otherwise returns its ticket, new or the one it brought back.
+         */
+        private Ticket ticketFor(String token) {
+            dropAbandoned(System.nanoTime());
+            Ticket ticket = token == null ? null : tickets.get(token);
+            if (ticket == null && queue.isEmpty() && tryStart()) {
+                admittedCounter.increment();
+                return null;
+            }
+            if (ticket == null) {
+                if (queue.size() >= limits.maxQueuePerShow()) {
+                    rejectedCounter.increment();
+                    throw new AdmissionRejectedException("Waiting room for show " + showId + " is full",
+                            null, 0, limits.retryAfter());
+                }
+                ticket = new Ticket(nextTicket++, UUID.randomUUID().toString());
+                queue.put(ticket.number, ticket);
+                tickets.put(ticket.token, ticket);
+                queuedCounter.increment();
+            } else if (present.containsKey(ticket.number)) {
+                rejectedCounter.increment();
+                throw new AdmissionRejectedException("A request with this queue ticket is already waiting",
+                        ticket.token, position(ticket), limits.retryAfter());
+            }
+            return ticket;
+        }
+
+        /**
+         * Called with the lock held whenever a slot may have freed up or the head of the line
+         * changed: reactive waiters at the head are admitted here, blocking ones are woken to
+         * admit themselves.
+         */
+        private void handOff() {
+            while (!present.isEmpty()) {
+                Waiter first = present.firstEntry().getValue();
+                if (first.permit == null) {
+                    turn.signalAll();
+                    return;
+                }
+                if (!tryStart()) {
+                    return;
+                }
+                // expire and cancel take a waiter out of present first, so its permit is still open
+                present.pollFirstEntry();
+                remove(first.ticket);
+                admittedCounter.increment();
+                first.permit.complete(new Permit(this));
+            }
+        }
+
+        private void expire(Waiter waiter) {
+            lock.lock();
+            try {
+                if (present.remove(waiter.ticket.number, waiter)) {
+                    waiter.ticket.lastSeenNanos = System.nanoTime();
+                    rejectedCounter.increment();
+                    waiter.permit.completeExceptionally(busy(waiter.ticket));
+                    handOff();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void cancel(Waiter waiter) {
+            lock.lock();
+            try {
+                if (present.remove(waiter.ticket.number, waiter)) {
+                    waiter.ticket.lastSeenNanos = System.nanoTime();
+                    waiter.permit.cancel(false);
+                    handOff();
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            // admitted as the subscriber went away: nobody else will close the permit. Closed
+            // outside the lock, since closing may wake other shows' gates.
+            if (waiter.permit.isDone() && !waiter.permit.isCompletedExceptionally()) {
+                waiter.permit.join().close();
+            }
+        }
+
+        private AdmissionRejectedException busy(Ticket ticket) {
+            return new AdmissionRejectedException("Show " + showId + " is busy, retry with the queue ticket",
+                    ticket.token, position(ticket), limits.retryAfter());
+        }
+
+        private int position(Ticket ticket) {
+            return queue.headMap(ticket.number).size() + 1;
+        }
+
+        private boolean tryStart() {
+            if (running >= showLimit(showId) || !tryAcquireGlobal(running == 0)) {
+                return false;
+            }
+            running++;
+            return true;
+        }
+
+        private void release() {
+            lock.lock();
+            try {
+                running--;
+                handOff();
+                retireIfIdle();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void wakeUp() {
+            lock.lock();
+            try {
+                handOff();
+                turn.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void dropAbandoned(long now) {
+            long ttlNanos = limits.ticketTtl().toNanos();
+            while (!queue.isEmpty()) {
+                Ticket head = queue.firstEntry().getValue();
+                if (present.containsKey(head.number) || now - head.lastSeenNanos < ttlNanos) {
+                    break;
+                }
+                remove(head);
+            }
+        }
+
+        private void remove(Ticket ticket) {
+            queue.remove(ticket.number);
+            tickets.remove(ticket.token);
+        }
+
+        private void retireIfIdle() {
+            if (running == 0 && queue.isEmpty()) {
+                retired = true;
+                gates.remove(showId, this);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.pbs.bookingservice.service;
+
+import com.pbs.bookingservice.entity.SeatInventory;
+import com.pbs.bookingservice.entity.Show;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Hibernate post-commit listener that evicts the cached show and seat layout once a {@link Show}
+ * or one of its {@link SeatInventory} rows written through the entity manager has committed.
+ * Registered by {@code HibernateListenerConfig}, so the entities know nothing about the cache.
+ * Bulk JPQL updates (seat status, available seat count) bypass it, which is fine since neither
+ * is part of the cache.
+ */
+public class ShowCacheInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final ShowCacheService showCacheService;
+
+    public ShowCacheInvalidator(ShowCacheService showCacheService) {
+        this.showCacheService = showCacheService;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onChange(event.getEntity());
+    }
+
+    // a rolled back write left the cached show as it was
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> entityClass = persister.getMappedClass();
+        return Show.class.equals(entityClass) || SeatInventory.class.equals(entityClass);
+    }
+
+    private void onChange(Object entity) {
+        Long showId = switch (entity) {
+            case Show show -> show.getId();
+            case SeatInventory seat -> seat.getShow() != null ? seat.getShow().getId() : null;
+            default -> null;
+        };
+        if (showId != null) {
+            // already committed, so there is no transaction left to wait for
+            showCacheService.evict(showId);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.pbs.bookingservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pbs.bookingservice.common.event.ShowUpdatedEvent;
+import com.pbs.bookingservice.common.ex.ShowNotFoundException;
+import com.pbs.bookingservice.repository.SeatInventoryRepository;
+import com.pbs.bookingservice.repository.ShowRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for show metadata and seat layouts (ids, numbers, prices). Lookups go to an
+ * in-process Caffeine cache first, then to Redis, then to Postgres, and fill the tiers they
+ * missed on the way back. {@link #evict(Long)} drops both tiers and tells the other nodes over
+ * Redis pub/sub to drop theirs; listeners of {@link ShowUpdatedEvent} are notified on every node.
+ */
+@Service
+@Slf4j
+public class ShowCacheService implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "show:cache:invalidate";
+    private static final String SHOW_KEY_PREFIX = "SHOW:";
+    private static final String LAYOUT_KEY_SUFFIX = ":LAYOUT";
+    private static final String MESSAGE_SEPARATOR = ":";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ShowRepository showRepository;
+    private final SeatInventoryRepository seatInventoryRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration redisTtl;
+
+    private final Cache<Long, ShowDetails> shows;
+    private final Cache<Long, ShowSeatLayout> layouts;
+    private final Counter showRedisHits;
+    private final Counter showRedisMisses;
+    private final Counter layoutRedisHits;
+    private final Counter layoutRedisMisses;
+
+    public ShowCacheService(ShowRepository showRepository,
+                            SeatInventoryRepository seatInventoryRepository,
+                            RedisTemplate<String, String> redisTemplate,
+                            RedisMessageListenerContainer listenerContainer,
+                            ObjectMapper objectMapper,
+                            ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${booking.show-cache.local.maximum-size:10000}") long maximumSize,
+                            @Value("${booking.show-cache.local.expire-after-write:PT10M}") Duration localTtl,
+                            @Value("${booking.show-cache.redis.ttl:PT1H}") Duration redisTtl) {
+        this.showRepository = showRepository;
+        this.seatInventoryRepository = seatInventoryRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.redisTtl = redisTtl;
+        this.shows = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        // a layout holds every seat of a show, so fewer of them fit in the same budget
+        this.layouts = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maximumSize / 10))
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, shows, "show.details");
+        CaffeineCacheMetrics.monitor(meterRegistry, layouts, "show.layout");
+        this.showRedisHits = redisCounter(meterRegistry, "show.details", "hit");
+        this.showRedisMisses = redisCounter(meterRegistry, "show.details", "miss");
+        this.layoutRedisHits = redisCounter(meterRegistry, "show.layout", "hit");
+        this.layoutRedisMisses = redisCounter(meterRegistry, "show.layout", "miss");
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * @throws ShowNotFoundException when the show does not exist
+     */
+    public ShowDetails getShow(Long showId) {
+        ShowDetails show = shows.get(showId, id -> readThrough(SHOW_KEY_PREFIX + id, ShowDetails.class,
+                showRedisHits, showRedisMisses,
+                () -> showRepository.findById(id).map(ShowDetails::of).orElse(null)));
+        if (show == null) {
+            throw new ShowNotFoundException("Show not found: " + showId);
+        }
+        return show;
+    }
+
+    /**
+     * @return the show's seat layout; empty when the show has no seats
+     */
+    public ShowSeatLayout getSeatLayout(Long showId) {
+        return layouts.get(showId, id -> readThrough(SHOW_KEY_PREFIX + id + LAYOUT_KEY_SUFFIX, ShowSeatLayout.class,
+                layoutRedisHits, layoutRedisMisses,
+                () -> ShowSeatLayout.of(id, seatInventoryRepository.findByShowId(id))));
+    }
+
+    /**
+     * Drops the show and its layout from both tiers on every node.
+     */
+    public void evict(Long showId) {
+        // Redis first, so a local miss right after this can not read the old entry back
+        try {
+            redisTemplate.delete(List.of(SHOW_KEY_PREFIX + showId, SHOW_KEY_PREFIX + showId + LAYOUT_KEY_SUFFIX));
+        } catch (Exception ex) {
+            log.warn("Failed to delete cached show {} from Redis. Error: {}", showId, ex.getMessage());
+        }
+        evictLocal(showId);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + MESSAGE_SEPARATOR + showId);
+        } catch (Exception ex) {
+            log.warn("Failed to publish show cache invalidation for showId: {}. Error: {}", showId, ex.getMessage());
+        }
+    }
+
+    /**
+     * {@link #evict(Long)} once the current transaction commits, or right away without one, so
+     * no other request can read the old rows back into the cache in between.
+     */
+    public void evictAfterCommit(Long showId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(showId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(showId);
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        evictLocal(Long.valueOf(body.substring(separator + 1)));
+    }
+
+    private void evictLocal(Long showId) {
+        shows.invalidate(showId);
+        layouts.invalidate(showId);
+        log.debug("Evicted cached show and seat layout for showId: {}", showId);
+        eventPublisher.publishEvent(new ShowUpdatedEvent(showId));
+    }
+
+    private <T> T readThrough(String key, Class<T> type, Counter hits, Counter misses, Supplier<T> loader) {
+        String cached = null;
+        try {
+            cached = redisTemplate.opsForValue().get(key);
+        } catch (Exception ex) {
+            log.warn("Failed to read {} from Redis, loading it from the database. Error: {}", key, ex.getMessage());
+        }
+        if (cached != null) {
+            try {
+                T value = objectMapper.readValue(cached, type);
+                hits.increment();
+                return value;
+            } catch (Exception ex) {
+                log.warn("Discarding unreadable cache entry {}. Error: {}", key, ex.getMessage());
+            }
+        }
+        misses.increment();
+        T loaded = loader.get();
+        if (loaded != null) {
+            try {
+                redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(loaded), redisTtl);
+            } catch (Exception ex) {
+                log.warn("Failed to write {} to Redis. Error: {}", key, ex.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    private static Counter redisCounter(MeterRegistry meterRegistry, String cache, String result) {
+        return Counter.builder("show.cache.redis")
+                .description("Redis (second tier) lookups after an in-process cache miss")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
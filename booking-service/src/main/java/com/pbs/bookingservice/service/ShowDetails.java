@@ -0,0 +1,19 @@
+package com.pbs.bookingservice.service;
+
+import com.pbs.bookingservice.entity.Show;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The nearly immutable part of a {@link Show}, as cached by {@link ShowCacheService}. The
+ * available seat count changes with every booking and is left out on purpose.
+ */
+public record ShowDetails(Long id, Long movieId, Long theatreId, LocalDateTime showTime,
+                          LocalDateTime endTime, Integer totalSeats, BigDecimal basePrice, String status) {
+
+    public static ShowDetails of(Show show) {
+        return new ShowDetails(show.getId(), show.getMovieId(), show.getTheatreId(), show.getShowTime(),
+                show.getEndTime(), show.getTotalSeats(), show.getBasePrice(), show.getStatus());
+    }
+}
@@ -0,0 +1,132 @@
+package com.pbs.bookingservice.service;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Seat layout of one show, interned to dense ordinals (seat inventory id order), plus a bitset of
+ * seats that are no longer available. The layout is immutable; the bits are updated lock-free.
+ */
+public final class ShowSeatAvailability {
+
+    private static final int BITS_PER_WORD = 64;
+
+    private final Long showId;
+    private final ShowSeatLayout layout;
+    private final long[] seatIds;
+    private final Map<String, Integer> ordinalBySeatNumber;
+    private final AtomicLongArray unavailable;
+    private final Instant loadedAt = Instant.now();
+
+    private ShowSeatAvailability(ShowSeatLayout layout, Collection<Long> unavailableSeatIds) {
+        this.showId = layout.showId();
+        this.layout = layout;
+        this.seatIds = layout.seatIds();
+        int size = layout.size();
+        this.ordinalBySeatNumber = new HashMap<>(size * 2);
+        this.unavailable = new AtomicLongArray((size + BITS_PER_WORD - 1) / BITS_PER_WORD);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            ordinalBySeatNumber.put(layout.seatNumbers()[ordinal], ordinal);
+        }
+        for (Long seatId : unavailableSeatIds) {
+            int ordinal = ordinalOfSeatId(seatId);
+            if (ordinal >= 0) {
+                markUnavailable(ordinal);
+            }
+        }
+    }
+
+    public static ShowSeatAvailability of(ShowSeatLayout layout, Collection<Long> unavailableSeatIds) {
+        return new ShowSeatAvailability(layout, unavailableSeatIds);
+    }
+
+    public Long getShowId() {
+        return showId;
+    }
+
+    public int size() {
+        return seatIds.length;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * @return the ordinal of the seat number, or -1 when the show has no such seat
+     */
+    public int ordinalOf(String seatNumber) {
+        Integer ordinal = ordinalBySeatNumber.get(seatNumber);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Canonical form of a seat selection: the distinct ordinals of the seat numbers in ascending
+     * order, which is seat inventory id order and so the order seats are locked and claimed in.
+     *
+     * @return the ordinals, or null when the show has no seat with one of the numbers
+     */
+    public int[] canonicalOrdinals(Collection<String> seatNumbers) {
+        int[] ordinals = new int[seatNumbers.size()];
+        int count = 0;
+        for (String seatNumber : seatNumbers) {
+            int ordinal = ordinalOf(seatNumber);
+            if (ordinal < 0) {
+                return null;
+            }
+            ordinals[count++] = ordinal;
+        }
+        Arrays.sort(ordinals);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || ordinals[i] != ordinals[distinct - 1]) {
+                ordinals[distinct++] = ordinals[i];
+            }
+        }
+        return distinct == ordinals.length ? ordinals : Arrays.copyOf(ordinals, distinct);
+    }
+
+    /**
+     * @return the ordinal of the seat inventory id, or -1 when the seat does not belong to the show
+     */
+    public int ordinalOfSeatId(long seatId) {
+        int ordinal = Arrays.binarySearch(seatIds, seatId);
+        return ordinal >= 0 ? ordinal : -1;
+    }
+
+    public long seatIdAt(int ordinal) {
+        return seatIds[ordinal];
+    }
+
+    public String seatNumberAt(int ordinal) {
+        return layout.seatNumbers()[ordinal];
+    }
+
+    public double priceAt(int ordinal) {
+        return layout.prices()[ordinal];
+    }
+
+    public ShowSeatLayout getLayout() {
+        return layout;
+    }
+
+    public boolean isAvailable(int ordinal) {
+        return (unavailable.get(ordinal / BITS_PER_WORD) & bit(ordinal)) == 0;
+    }
+
+    public void markUnavailable(int ordinal) {
+        unavailable.getAndAccumulate(ordinal / BITS_PER_WORD, bit(ordinal), (word, mask) -> word | mask);
+    }
+
+    public void markAvailable(int ordinal) {
+        unavailable.getAndAccumulate(ordinal / BITS_PER_WORD, bit(ordinal), (word, mask) -> word & ~mask);
+    }
+
+    private static long bit(int ordinal) {
+        return 1L << (ordinal % BITS_PER_WORD);
+    }
+}
@@ -0,0 +1,47 @@
+package com.pbs.bookingservice.service;
+
+import com.pbs.bookingservice.entity.SeatInventory;
+import com.pbs.bookingservice.entity.enums.SeatStatus;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Seat ids, numbers and prices of one show in seat inventory id order, as cached by
+ * {@link ShowCacheService}. Seat statuses are not part of the layout.
+ */
+public record ShowSeatLayout(Long showId, long[] seatIds, String[] seatNumbers, double[] prices) {
+
+    public static ShowSeatLayout of(Long showId, List<SeatInventory> seats) {
+        List<SeatInventory> ordered = seats.stream()
+                .sorted(Comparator.comparing(SeatInventory::getId))
+                .toList();
+        int size = ordered.size();
+        long[] seatIds = new long[size];
+        String[] seatNumbers = new String[size];
+        double[] prices = new double[size];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            SeatInventory seat = ordered.get(ordinal);
+            seatIds[ordinal] = seat.getId();
+            seatNumbers[ordinal] = seat.getSeatNumber();
+            prices[ordinal] = seat.getPrice() != null ? seat.getPrice() : 0d;
+        }
+        return new ShowSeatLayout(showId, seatIds, seatNumbers, prices);
+    }
+
+    public int size() {
+        return seatIds.length;
+    }
+
+    /**
+     * @return a detached seat with the layout's id, number and price, for pricing and booking records
+     */
+    public SeatInventory seatAt(int ordinal) {
+        return SeatInventory.builder()
+                .id(seatIds[ordinal])
+                .seatNumber(seatNumbers[ordinal])
+                .price(prices[ordinal])
+                .seatStatus(SeatStatus.AVAILABLE)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.pbs.bookingservice.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel of ids keyed by deadline. Three levels of 64 slots cover 64 ticks,
+ * 64^2 ticks and 64^3 ticks ahead (about 3 days at one-second ticks); later deadlines are parked
+ * in the last slot of the top level and re-placed when it cascades. Adding, rescheduling and
+ * cancelling are O(1); {@link #advance(long)} touches only the slots that came due.
+ * <p>
+ * Not thread-safe: callers serialize access.
+ */
+final class TimingWheel {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 3;
+    private static final long MAX_SPAN_TICKS = 1L << (WHEEL_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final List<List<Long>> slots = new ArrayList<>(LEVELS * WHEEL_SIZE);
+    private final Map<Long, Long> deadlines = new HashMap<>();
+    private long currentTick;
+
+    TimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (int i = 0; i < LEVELS * WHEEL_SIZE; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Schedules (or reschedules) an id.
+     *
+     * @return {@code true} if the deadline has already passed and the id should fire right away;
+     * it is not kept in the wheel in that case
+     */
+    boolean schedule(long id, long deadlineMillis) {
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        if (deadlineTick <= currentTick) {
+            deadlines.remove(id);
+            return true;
+        }
+        deadlines.put(id, deadlineTick);
+        place(id, deadlineTick);
+        return false;
+    }
+
+    void cancel(long id) {
+        deadlines.remove(id);
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis}.
+     *
+     * @return the ids whose deadlines passed, in deadline order
+     */
+    List<Long> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<Long> due = new ArrayList<>();
+        while (currentTick < nowTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(level, due);
+                }
+            }
+            collect(slot(0, currentTick), due);
+        }
+        return due;
+    }
+
+    private void cascade(int level, List<Long> due) {
+        List<Long> bucket = slot(level, currentTick >>> (WHEEL_BITS * level));
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Long id : ids) {
+            Long deadlineTick = deadlines.get(id);
+            if (deadlineTick == null) {
+                continue;
+            }
+            if (deadlineTick <= currentTick) {
+                deadlines.remove(id);
+                due.add(id);
+            } else {
+                place(id, deadlineTick);
+            }
+        }
+    }
+
+    private void collect(List<Long> bucket, List<Long> due) {
+        for (Long id : bucket) {
+            Long deadlineTick = deadlines.get(id);
+            // stale entries of cancelled or rescheduled ids are dropped here
+            if (deadlineTick != null && deadlineTick <= currentTick) {
+                deadlines.remove(id);
+                due.add(id);
+            }
+        }
+        bucket.clear();
+    }
+
+    private void place(long id, long deadlineTick) {
+        long delta = deadlineTick - currentTick;
+        if (delta >= MAX_SPAN_TICKS) {
+            deadlineTick = currentTick + MAX_SPAN_TICKS - 1;
+            delta = MAX_SPAN_TICKS - 1;
+        }
+        int level = 0;
+        while (delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        slot(level, deadlineTick >>> (WHEEL_BITS * level)).add(id);
+    }
+
+    private List<Long> slot(int level, long tick) {
+        return slots.get(level * WHEEL_SIZE + (int) (tick & WHEEL_MASK));
+    }
+}
@@ -0,0 +1,34 @@
+-- Moves each pooled-lo id sequence (db/migration/V5) past the highest id in its table. ddl-auto
+-- creates a missing sequence starting at 1, which on an existing database would hand out ids
+-- already in use. A sequence ahead of its table is never moved back, so this is safe while other
+-- instances are allocating.
+do
+$$
+    declare
+        entry     record;
+        highest   bigint;
+        next_free bigint;
+    begin
+        for entry in select *
+                     from (values ('booking', 'id', 'booking_seq'),
+                                  ('booking_seat', 'id', 'booking_seat_seq'),
+                                  ('seat_inventory', 'id', 'seat_inventory_seq'),
+                                  ('outbox_events', 'event_id', 'outbox_events_seq')) as v(table_name, id_column, sequence_name)
+            loop
+                execute format('create sequence if not exists public.%I increment by 50', entry.sequence_name);
+                execute format('select coalesce(max(%I), 0) from public.%I', entry.id_column, entry.table_name)
+                    into highest;
+                -- archived events keep their ids, and a new event must not reuse one
+                if entry.table_name = 'outbox_events' and to_regclass('public.outbox_events_archive') is not null then
+                    execute 'select greatest($1, coalesce(max(event_id), 0)) from public.outbox_events_archive'
+                        into highest using highest;
+                end if;
+                execute format('select case when is_called then last_value + 50 else last_value end from public.%I',
+                               entry.sequence_name)
+                    into next_free;
+                if highest >= next_free then
+                    perform setval('public.' || entry.sequence_name, highest + 1, false);
+                end if;
+            end loop;
+    end
+$$
@@ -0,0 +1,27 @@
+-- Only pending rows are indexed, so the relay's claim query stays cheap however much history
+-- the table holds.
+create index if not exists idx_outbox_events_pending
+    on public.outbox_events (event_id)
+    where event_status = 'PENDING';
+
+-- Published events are moved here in bulk by OutboxArchiver and purged after the retention period.
+create table if not exists public.outbox_events_archive
+(
+    event_id       bigint       not null
+        primary key,
+    aggregate_id   varchar(255),
+    aggregate_type varchar(255),
+    created_at     timestamp(6),
+    event_status   varchar(255),
+    event_type     varchar(255),
+    payload        text,
+    processed_at   timestamp(6),
+    status         varchar(255),
+    archived_at    timestamp(6) not null default now()
+);
+
+alter table public.outbox_events_archive
+    owner to kaizen;
+
+create index if not exists idx_outbox_events_archive_archived_at
+    on public.outbox_events_archive (archived_at);
@@ -0,0 +1,7 @@
+-- Keyset pages of a user's history walk this index newest first instead of sorting all their bookings.
+create index if not exists idx_booking_user_history
+    on public.booking (user_id, booking_time desc, id desc);
+
+-- Postgres does not index foreign keys; history reads join seats by booking.
+create index if not exists idx_booking_seat_booking_id
+    on public.booking_seat (booking_id);
@@ -0,0 +1,58 @@
+-- Booking, booking seat, seat inventory and outbox ids move from identity columns to sequences that
+-- Hibernate reserves 50 at a time (pooled-lo), so a booking's rows can be inserted in JDBC batches.
+-- Every nextval is the first id of a block of 50, so plain SQL inserts through the column default
+-- and booking-service instances never hand out the same id.
+--
+-- Safe to run again: a sequence behind the ids in its table is moved past max(id), one ahead of
+-- its table is never moved back. booking-service does the same on every start (db/id-sequences.sql)
+-- for sequences ddl-auto created starting at 1.
+
+create sequence if not exists public.booking_seq increment by 50;
+create sequence if not exists public.booking_seat_seq increment by 50;
+create sequence if not exists public.seat_inventory_seq increment by 50;
+create sequence if not exists public.outbox_events_seq increment by 50;
+
+select setval('public.booking_seq', t.next_id, false)
+from (select coalesce(max(id), 0) + 1 as next_id from public.booking) t,
+     public.booking_seq s
+where t.next_id > case when s.is_called then s.last_value + 50 else s.last_value end;
+
+select setval('public.booking_seat_seq', t.next_id, false)
+from (select coalesce(max(id), 0) + 1 as next_id from public.booking_seat) t,
+     public.booking_seat_seq s
+where t.next_id > case when s.is_called then s.last_value + 50 else s.last_value end;
+
+select setval('public.seat_inventory_seq', t.next_id, false)
+from (select coalesce(max(id), 0) + 1 as next_id from public.seat_inventory) t,
+     public.seat_inventory_seq s
+where t.next_id > case when s.is_called then s.last_value + 50 else s.last_value end;
+
+-- archived events keep their ids, and a new event must not reuse one
+select setval('public.outbox_events_seq', t.next_id, false)
+from (select greatest((select coalesce(max(event_id), 0) from public.outbox_events),
+                      (select coalesce(max(event_id), 0) from public.outbox_events_archive)) + 1 as next_id) t,
+     public.outbox_events_seq s
+where t.next_id > case when s.is_called then s.last_value + 50 else s.last_value end;
+
+alter table public.booking alter column id drop identity if exists;
+alter table public.booking alter column id set default nextval('public.booking_seq');
+alter sequence public.booking_seq owned by public.booking.id;
+
+alter table public.booking_seat alter column id drop identity if exists;
+alter table public.booking_seat alter column id set default nextval('public.booking_seat_seq');
+alter sequence public.booking_seat_seq owned by public.booking_seat.id;
+
+alter table public.seat_inventory alter column id drop identity if exists;
+alter table public.seat_inventory alter column id set default nextval('public.seat_inventory_seq');
+alter sequence public.seat_inventory_seq owned by public.seat_inventory.id;
+
+alter table public.outbox_events alter column event_id drop identity if exists;
+alter table public.outbox_events alter column event_id set default nextval('public.outbox_events_seq');
+alter sequence public.outbox_events_seq owned by public.outbox_events.event_id;
+
+-- The relay claims pending events in creation order (see OutboxRepository#claimPendingEvents);
+-- ids from different nodes' blocks are not.
+create index if not exists idx_outbox_events_pending_created
+    on public.outbox_events (created_at, event_id)
+    where event_status = 'PENDING';
+drop index if exists public.idx_outbox_events_pending;
@@ -0,0 +1,10 @@
+-- A relay claims its batch for claim-lease-ms in a short transaction and publishes it without
+-- holding a connection; another relay takes the events over once the claim has run out.
+alter table public.outbox_events
+    add column if not exists claimed_until timestamp(6);
+
+-- The claim query skips events with an older pending event of the same booking, so a booking's
+-- events are published one at a time and in order.
+create index if not exists idx_outbox_events_pending_aggregate
+    on public.outbox_events (aggregate_id, created_at, event_id)
+    where event_status = 'PENDING';
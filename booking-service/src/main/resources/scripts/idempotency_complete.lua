@@ -0,0 +1,9 @@
+-- Replaces an idempotency key's in-flight marker with the stored result, as long as the given
+-- claim still holds it.
+-- KEYS[1]: idempotency key, ARGV[1]: in-flight marker, ARGV[2]: result value, ARGV[3]: ttl in milliseconds
+-- Returns 1 when the result was stored, 0 when the key holds anything else.
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+    return 1
+end
+return 0
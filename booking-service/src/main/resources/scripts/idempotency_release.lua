@@ -0,0 +1,8 @@
+-- Deletes an idempotency key, as long as the given claim's in-flight marker still holds it.
+-- KEYS[1]: idempotency key, ARGV[1]: in-flight marker
+-- Returns 1 when the key was released, 0 when it holds anything else.
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    redis.call('DEL', KEYS[1])
+    return 1
+end
+return 0
@@ -0,0 +1,8 @@
+-- Extends an idempotency key's in-flight marker, as long as the given claim still holds it.
+-- KEYS[1]: idempotency key, ARGV[1]: in-flight marker, ARGV[2]: ttl in milliseconds
+-- Returns 1 when the marker was extended, 0 when the key holds anything else.
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+    return 1
+end
+return 0
@@ -0,0 +1,14 @@
+-- Atomically locks every seat key for one owner.
+-- KEYS: seat lock keys, ARGV[1]: owner, ARGV[2]: ttl in milliseconds
+-- Returns 0 when all seats are locked, otherwise the 1-based index of the
+-- first key held by another owner (nothing is written in that case).
+for i, key in ipairs(KEYS) do
+    local owner = redis.call('GET', key)
+    if owner and owner ~= ARGV[1] then
+        return i
+    end
+end
+for _, key in ipairs(KEYS) do
+    redis.call('SET', key, ARGV[1], 'PX', ARGV[2])
+end
+return 0
@@ -0,0 +1,8 @@
+-- Returns the remaining lock time in milliseconds for every seat key,
+-- or a negative value (PTTL semantics) for seats that are not locked.
+-- KEYS: seat lock keys
+local ttls = {}
+for i, key in ipairs(KEYS) do
+    ttls[i] = redis.call('PTTL', key)
+end
+return ttls
@@ -0,0 +1,11 @@
+-- Releases seat keys held by the given owner, leaving other owners' locks intact.
+-- KEYS: seat lock keys, ARGV[1]: owner
+-- Returns the 1-based indexes of the keys that were released.
+local released = {}
+for i, key in ipairs(KEYS) do
+    if redis.call('GET', key) == ARGV[1] then
+        redis.call('DEL', key)
+        released[#released + 1] = i
+    end
+end
+return released
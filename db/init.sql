@@ -96,3 +96,6 @@ VALUES (1, 1, 'A1', 'AVAILABLE', 250.00),
        (88, 1, 'I8', 'AVAILABLE', 250.00),
        (89, 1, 'I9', 'AVAILABLE', 250.00),
        (90, 1, 'I10', 'AVAILABLE', 250.00);
+
+-- the seats above have explicit ids; the pooled-lo sequence must start past them
+SELECT setval('public.seat_inventory_seq', (SELECT max(id) FROM seat_inventory) + 1, false);
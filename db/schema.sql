@@ -1,6 +1,10 @@
+-- booking, booking_seat, seat_inventory and outbox_events ids come from sequences Hibernate reserves
+-- 50 at a time (pooled-lo); rows seeded with explicit ids must move the sequence past them
+create sequence public.booking_seq increment by 50;
+
 create table public.booking
 (
-    id                bigint generated by default as identity
+    id                bigint default nextval('public.booking_seq')
         primary key,
     base_amount       numeric(38, 2),
     booking_reference varchar(255) not null
@@ -21,10 +25,19 @@ create table public.booking
 alter table public.booking
     owner to kaizen;
 
+alter sequence public.booking_seq
+    owned by public.booking.id;
+
+-- keyset pages of a user's history walk this index newest first
+create index idx_booking_user_history
+    on public.booking (user_id, booking_time desc, id desc);
+
+
+create sequence public.booking_seat_seq increment by 50;
 
 create table public.booking_seat
 (
-    id                bigint generated by default as identity
+    id                bigint default nextval('public.booking_seat_seq')
         primary key,
     price             double precision,
     price_paid        double precision,
@@ -37,11 +50,20 @@ create table public.booking_seat
 alter table public.booking_seat
     owner to kaizen;
 
+alter sequence public.booking_seat_seq
+    owned by public.booking_seat.id;
+
+-- Postgres does not index foreign keys; history reads join seats by booking
+create index idx_booking_seat_booking_id
+    on public.booking_seat (booking_id);
+
 
 
+create sequence public.outbox_events_seq increment by 50;
+
 create table public.outbox_events
 (
-    event_id       bigint generated by default as identity
+    event_id       bigint default nextval('public.outbox_events_seq')
         primary key,
     aggregate_id   varchar(255),
     aggregate_type varchar(255),
@@ -53,17 +75,53 @@ create table public.outbox_events
     event_type     varchar(255),
     payload        jsonb,
     processed_at   timestamp(6),
-    status         varchar(255)
+    status         varchar(255),
+    claimed_until  timestamp(6)
 );
 
 alter table public.outbox_events
     owner to kaizen;
 
+alter sequence public.outbox_events_seq
+    owned by public.outbox_events.event_id;
+
+create index idx_outbox_events_pending_created
+    on public.outbox_events (created_at, event_id)
+    where event_status = 'PENDING';
+
+-- one event per booking in flight: the claim query skips events with an older pending one
+create index idx_outbox_events_pending_aggregate
+    on public.outbox_events (aggregate_id, created_at, event_id)
+    where event_status = 'PENDING';
+
+create table public.outbox_events_archive
+(
+    event_id       bigint       not null
+        primary key,
+    aggregate_id   varchar(255),
+    aggregate_type varchar(255),
+    created_at     timestamp(6),
+    event_status   varchar(255),
+    event_type     varchar(255),
+    payload        text,
+    processed_at   timestamp(6),
+    status         varchar(255),
+    archived_at    timestamp(6) not null default now()
+);
+
+alter table public.outbox_events_archive
+    owner to kaizen;
+
+create index idx_outbox_events_archive_archived_at
+    on public.outbox_events_archive (archived_at);
 
 
+
+create sequence public.seat_inventory_seq increment by 50;
+
 create table public.seat_inventory
 (
-    id          bigint generated by default as identity
+    id          bigint default nextval('public.seat_inventory_seq')
         primary key,
     price       double precision,
     seat_number varchar(255),
@@ -79,6 +137,9 @@ create table public.seat_inventory
 alter table public.seat_inventory
     owner to kaizen;
 
+alter sequence public.seat_inventory_seq
+    owned by public.seat_inventory.id;
+
 
 
 create table public.show